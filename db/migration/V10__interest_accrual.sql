@@ -0,0 +1,7 @@
+-- Migration: daily savings interest accrual (InterestAccrualService)
+-- Interest accrues into accrued_interest each day and is credited to the balance monthly.
+-- last_accrual_date makes accrual idempotent per day and lets missed days catch up.
+
+ALTER TABLE `account`
+  ADD COLUMN IF NOT EXISTS `accrued_interest` DOUBLE NOT NULL DEFAULT 0,
+  ADD COLUMN IF NOT EXISTS `last_accrual_date` DATE NULL;
@@ -0,0 +1,20 @@
+-- Migration: card authorization holds (CardAuthorizationService)
+-- One row per authorization; written asynchronously after the in-memory authorize-and-hold,
+-- and updated when the hold is captured, released or expires.
+-- idx_card_hold_status_authorized serves the startup reload of open holds and expiry.
+
+CREATE TABLE IF NOT EXISTS `card_hold` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  `hold_id` VARCHAR(255) NULL,
+  `card_number` VARCHAR(255) NULL,
+  `account_number` VARCHAR(255) NULL,
+  `amount` DOUBLE NOT NULL,
+  `captured_amount` DOUBLE NOT NULL DEFAULT 0,
+  `merchant` VARCHAR(255) NULL,
+  `status` VARCHAR(255) NULL,
+  `authorized_at` DATETIME(6) NULL,
+  `resolved_at` DATETIME(6) NULL,
+  `transaction_id` BIGINT NULL,
+  CONSTRAINT `uk_card_hold_hold_id` UNIQUE (`hold_id`),
+  INDEX `idx_card_hold_status_authorized` (`status`, `authorized_at`)
+);
@@ -0,0 +1,10 @@
+-- Migration: status + created-at indexes backing the paginated admin queues
+-- Card, loan and delete requests are listed oldest first per status, help requests newest
+-- first (optionally per status); each page and the pending counts in the admin header read
+-- only the index range of their status.
+
+CREATE INDEX `idx_debit_card_status_issued` ON `debit_card` (`status`, `issued_date`);
+CREATE INDEX `idx_loan_status_created` ON `loan` (`status`, `created_at`);
+CREATE INDEX `idx_delete_request_status_created` ON `delete_request` (`status`, `created_at`);
+CREATE INDEX `idx_help_request_status_created` ON `help_request` (`status`, `created_at`);
+CREATE INDEX `idx_help_request_created` ON `help_request` (`created_at`);
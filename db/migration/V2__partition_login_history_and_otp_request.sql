@@ -0,0 +1,43 @@
+-- Migration: monthly range partitioning for login_history and otp_request
+-- Both tables are append-heavy and rarely read, so retention is handled by
+-- dropping whole partitions (see PartitionMaintenanceService) instead of DELETE.
+--
+-- MySQL requires the partitioning column to be part of every unique key, so the
+-- primary key becomes (id, <timestamp>). Partition names are p<yyyyMM> and hold the
+-- rows of that month; p_history holds everything older and pmax is the catch-all
+-- that the maintenance job splits when it creates upcoming months.
+
+-- login_history (partitioned by login_time)
+ALTER TABLE `login_history`
+  MODIFY `login_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (`id`, `login_time`);
+
+ALTER TABLE `login_history`
+  PARTITION BY RANGE (TO_DAYS(`login_time`)) (
+    PARTITION p_history VALUES LESS THAN (TO_DAYS('2026-10-01')),
+    PARTITION p202610 VALUES LESS THAN (TO_DAYS('2026-11-01')),
+    PARTITION p202611 VALUES LESS THAN (TO_DAYS('2026-12-01')),
+    PARTITION p202612 VALUES LESS THAN (TO_DAYS('2027-01-01')),
+    PARTITION pmax VALUES LESS THAN MAXVALUE
+  );
+
+-- otp_request (partitioned by created_at)
+UPDATE `otp_request` SET `created_at` = COALESCE(`expires_at`, NOW()) WHERE `created_at` IS NULL;
+
+ALTER TABLE `otp_request`
+  MODIFY `created_at` DATETIME(6) NOT NULL,
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (`id`, `created_at`);
+
+ALTER TABLE `otp_request`
+  PARTITION BY RANGE (TO_DAYS(`created_at`)) (
+    PARTITION p_history VALUES LESS THAN (TO_DAYS('2026-10-01')),
+    PARTITION p202610 VALUES LESS THAN (TO_DAYS('2026-11-01')),
+    PARTITION p202611 VALUES LESS THAN (TO_DAYS('2026-12-01')),
+    PARTITION p202612 VALUES LESS THAN (TO_DAYS('2027-01-01')),
+    PARTITION pmax VALUES LESS THAN MAXVALUE
+  );
+
+-- Note: partitioned tables cannot take part in foreign keys. Neither table is
+-- referenced by one today; keep it that way if new relations are added.
@@ -0,0 +1,5 @@
+-- Migration: composite index backing keyset-paginated statements
+-- Statement pages seek on (account_number, date, id) and read `size` rows in index
+-- order, so response time no longer depends on how many transactions an account has.
+
+CREATE INDEX `idx_transaction_account_date_id` ON `transaction` (`account_number`, `date`, `id`);
@@ -0,0 +1,20 @@
+-- Migration: per-account running totals (AccountStatistics entity)
+-- Rows are upserted with every posting; POST /api/account/admin/statistics/backfill
+-- rebuilds them from the transaction table once after deploying.
+
+CREATE TABLE IF NOT EXISTS `account_statistics` (
+  `account_number` VARCHAR(255) NOT NULL PRIMARY KEY,
+  `deposit_total` DOUBLE NOT NULL DEFAULT 0,
+  `deposit_count` BIGINT NOT NULL DEFAULT 0,
+  `withdraw_total` DOUBLE NOT NULL DEFAULT 0,
+  `withdraw_count` BIGINT NOT NULL DEFAULT 0,
+  `transfer_in_total` DOUBLE NOT NULL DEFAULT 0,
+  `transfer_in_count` BIGINT NOT NULL DEFAULT 0,
+  `transfer_out_total` DOUBLE NOT NULL DEFAULT 0,
+  `transfer_out_count` BIGINT NOT NULL DEFAULT 0,
+  `bill_payment_total` DOUBLE NOT NULL DEFAULT 0,
+  `bill_payment_count` BIGINT NOT NULL DEFAULT 0,
+  `other_total` DOUBLE NOT NULL DEFAULT 0,
+  `other_count` BIGINT NOT NULL DEFAULT 0,
+  `last_activity` DATETIME(6) DEFAULT NULL
+);
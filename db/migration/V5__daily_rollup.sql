@@ -0,0 +1,11 @@
+-- Migration: per-day admin dashboard counters (DailyRollup entity)
+-- Maintained on every posting / account creation / card request. To seed it from
+-- existing data call POST /api/account/admin/analytics/rollup/rebuild?from=YYYY-MM-DD
+
+CREATE TABLE IF NOT EXISTS `daily_rollup` (
+  `rollup_date` DATE NOT NULL PRIMARY KEY,
+  `transaction_volume` DOUBLE NOT NULL DEFAULT 0,
+  `transaction_count` BIGINT NOT NULL DEFAULT 0,
+  `new_accounts` BIGINT NOT NULL DEFAULT 0,
+  `card_requests` BIGINT NOT NULL DEFAULT 0
+);
@@ -0,0 +1,11 @@
+-- Migration: per-day HyperLogLog sketches of distinct active accounts (ActiveUserSketch entity)
+-- One 4 KB register array per kind and day; merged in memory into DAU / WAU / MAU figures.
+-- Written by ActiveUserService every bank.active-users.flush-ms; history before this
+-- migration is not backfilled.
+
+CREATE TABLE IF NOT EXISTS `active_user_sketch` (
+  `sketch_date` DATE NOT NULL PRIMARY KEY,
+  `transacting` VARBINARY(4096) NULL,
+  `logged_in` VARBINARY(4096) NULL,
+  `updated_at` DATETIME(6) NULL
+);
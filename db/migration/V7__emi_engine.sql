@@ -0,0 +1,39 @@
+-- Migration: scheduled EMI auto-debit engine (EmiEngineService)
+-- Loans get a next_due_date; runs select ACTIVE loans due by the run date in id-ordered
+-- chunks from idx_loan_status_next_due_id. Each run and each per-loan outcome is recorded,
+-- and emi_run.last_loan_id is the checkpoint a crashed run resumes from.
+
+ALTER TABLE `loan` ADD COLUMN `next_due_date` DATE NULL;
+
+-- Existing active loans: next EMI falls one month after the last one paid
+UPDATE `loan` SET `next_due_date` = DATE_ADD(DATE(`created_at`), INTERVAL (`months_paid` + 1) MONTH)
+WHERE `status` = 'ACTIVE' AND `next_due_date` IS NULL;
+
+CREATE INDEX `idx_loan_status_next_due_id` ON `loan` (`status`, `next_due_date`, `id`);
+
+CREATE TABLE IF NOT EXISTS `emi_run` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  `run_date` DATE NULL,
+  `status` VARCHAR(255) NULL,
+  `started_at` DATETIME(6) NULL,
+  `finished_at` DATETIME(6) NULL,
+  `last_loan_id` BIGINT NOT NULL DEFAULT 0,
+  `processed` BIGINT NOT NULL DEFAULT 0,
+  `succeeded` BIGINT NOT NULL DEFAULT 0,
+  `insufficient_funds` BIGINT NOT NULL DEFAULT 0,
+  `failed` BIGINT NOT NULL DEFAULT 0,
+  `message` VARCHAR(255) NULL,
+  CONSTRAINT `uk_emi_run_date` UNIQUE (`run_date`)
+);
+
+CREATE TABLE IF NOT EXISTS `emi_run_outcome` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  `run_id` BIGINT NULL,
+  `loan_id` BIGINT NULL,
+  `account_number` VARCHAR(255) NULL,
+  `status` VARCHAR(255) NULL,
+  `amount` DOUBLE NOT NULL DEFAULT 0,
+  `message` VARCHAR(255) NULL,
+  `processed_at` DATETIME(6) NULL,
+  CONSTRAINT `uk_emi_run_outcome_run_loan` UNIQUE (`run_id`, `loan_id`)
+);
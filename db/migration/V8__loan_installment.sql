@@ -0,0 +1,20 @@
+-- Migration: persisted amortization schedules (LoanScheduleService)
+-- One row per installment, written in a single batch when a loan is approved.
+-- idx_loan_installment_status_due serves due-date lookups and outstanding-principal sums;
+-- loan.next_due_date mirrors the first DUE installment. Loans approved before this
+-- migration are given schedules by LoanScheduleService on the next startup.
+
+CREATE TABLE IF NOT EXISTS `loan_installment` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  `loan_id` BIGINT NULL,
+  `installment_no` INT NOT NULL,
+  `due_date` DATE NULL,
+  `amount` DOUBLE NOT NULL,
+  `principal` DOUBLE NOT NULL,
+  `interest` DOUBLE NOT NULL,
+  `outstanding_principal` DOUBLE NOT NULL,
+  `status` VARCHAR(255) NULL,
+  `paid_at` DATETIME(6) NULL,
+  CONSTRAINT `uk_loan_installment_loan_no` UNIQUE (`loan_id`, `installment_no`),
+  INDEX `idx_loan_installment_status_due` (`status`, `due_date`, `loan_id`)
+);
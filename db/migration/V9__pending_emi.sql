@@ -0,0 +1,20 @@
+-- Migration: retry queue for bounced EMIs (PendingEmiService)
+-- One row per missed installment, retried when a credit posts to the account.
+-- idx_pending_emi_account_status serves the per-account lookup on each retry.
+
+CREATE TABLE IF NOT EXISTS `pending_emi` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  `loan_id` BIGINT NULL,
+  `installment_no` INT NOT NULL,
+  `account_number` VARCHAR(255) NULL,
+  `amount` DOUBLE NOT NULL,
+  `penalty` DOUBLE NOT NULL,
+  `penalty_paid` BIT(1) NOT NULL DEFAULT b'0',
+  `status` VARCHAR(255) NULL,
+  `attempts` INT NOT NULL DEFAULT 0,
+  `created_at` DATETIME(6) NULL,
+  `last_attempt_at` DATETIME(6) NULL,
+  `resolved_at` DATETIME(6) NULL,
+  CONSTRAINT `uk_pending_emi_loan_installment` UNIQUE (`loan_id`, `installment_no`),
+  INDEX `idx_pending_emi_account_status` (`account_number`, `status`)
+);
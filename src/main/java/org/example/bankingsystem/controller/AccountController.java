@@ -1,23 +1,25 @@
 package org.example.bankingsystem.controller;
 
 import org.example.bankingsystem.model.Account;
-import org.example.bankingsystem.model.Transaction;
 import org.example.bankingsystem.service.AccountService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayInputStream;
-import java.util.List;
+import java.time.LocalDate;
+import java.util.Map;
 
 @Controller
 public class AccountController {
 
+    private static final int STATEMENT_PAGE_SIZE = 20;
+
     @Autowired
     private AccountService accountService;
 
@@ -101,22 +103,35 @@ public class AccountController {
             Model model) {
         // optional: verify PIN before showing
         // Here we do minimal check - reuse withdraw's verification indirectly
-        List<Transaction> txns = accountService.getMiniStatement(accountNumber);
-        model.addAttribute("transactions", txns);
-        model.addAttribute("accNo", accountNumber);
+        return statementPage(accountNumber, null, model);
+    }
+
+    // Older statement pages (cursor comes from the "Older transactions" link)
+    @GetMapping("/statement/{accNo}/page")
+    public String statementPage(@PathVariable String accNo,
+            @RequestParam(required = false) String cursor,
+            Model model) {
+        Map<String, Object> page = accountService.getStatementPage(accNo, cursor, STATEMENT_PAGE_SIZE);
+        model.addAttribute("transactions", page.get("transactions"));
+        model.addAttribute("nextCursor", page.get("nextCursor"));
+        model.addAttribute("accNo", accNo);
         return "statementView";
     }
 
-    // Download CSV
+    // Download CSV (streamed; optional ?from=&to= dates and ?gzip=true)
     @GetMapping("/statement/{accNo}/download")
-    public ResponseEntity<InputStreamResource> downloadCsv(@PathVariable String accNo) {
-        ByteArrayInputStream bais = accountService.exportTransactionsToCsv(accNo);
-        InputStreamResource resource = new InputStreamResource(bais);
-        String filename = "mini_statement_" + accNo + ".csv";
+    public ResponseEntity<StreamingResponseBody> downloadCsv(@PathVariable String accNo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = out -> accountService.exportTransactionsToCsv(accNo,
+                from == null ? null : from.atStartOfDay(),
+                to == null ? null : to.plusDays(1).atStartOfDay(), gzip, out);
+        String filename = "mini_statement_" + accNo + (gzip ? ".csv.gz" : ".csv");
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .body(resource);
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : "text/csv"))
+                .body(body);
     }
 
     // Delete account
@@ -6,20 +6,39 @@ import org.example.bankingsystem.model.Loan;
 import org.example.bankingsystem.model.DebitCard;
 
 import org.example.bankingsystem.service.AccountService;
+import org.example.bankingsystem.service.AdminStatsService;
+import org.example.bankingsystem.service.AccountStatisticsService;
+import org.example.bankingsystem.service.ActiveUserService;
+import org.example.bankingsystem.service.AdminExportService;
+import org.example.bankingsystem.service.DailyRollupService;
+import org.example.bankingsystem.service.EmiEngineService;
+import org.example.bankingsystem.service.InterestAccrualService;
+import org.example.bankingsystem.service.LiveMetricsService;
+import org.example.bankingsystem.service.TransactionColumnStore;
+import org.example.bankingsystem.service.VolumeReportService;
+import org.example.bankingsystem.service.LoanPortfolioService;
+import org.example.bankingsystem.service.LoanScheduleService;
 import org.example.bankingsystem.service.LoanService;
+import org.example.bankingsystem.service.LoanSimulatorService;
+import org.example.bankingsystem.service.PendingCountService;
+import org.example.bankingsystem.service.PendingEmiService;
 import org.example.bankingsystem.service.DebitCardService;
+import org.example.bankingsystem.service.CardAuthorizationService;
+import org.example.bankingsystem.service.CardNetworkSimulator;
 import org.example.bankingsystem.service.AuthService;
 import org.example.bankingsystem.service.LoginHistoryService;
 import org.example.bankingsystem.service.ChequeService;
 import org.example.bankingsystem.model.ChequeRequest;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayInputStream;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -47,6 +66,57 @@ public class RestAccountController {
     @Autowired
     private LoginHistoryService loginHistoryService;
 
+    @Autowired
+    private AccountStatisticsService accountStatisticsService;
+
+    @Autowired
+    private DailyRollupService dailyRollupService;
+
+    @Autowired
+    private AdminStatsService adminStatsService;
+
+    @Autowired
+    private LiveMetricsService liveMetricsService;
+
+    @Autowired
+    private TransactionColumnStore transactionColumnStore;
+
+    @Autowired
+    private VolumeReportService volumeReportService;
+
+    @Autowired
+    private ActiveUserService activeUserService;
+
+    @Autowired
+    private AdminExportService adminExportService;
+
+    @Autowired
+    private EmiEngineService emiEngineService;
+
+    @Autowired
+    private LoanScheduleService loanScheduleService;
+
+    @Autowired
+    private LoanPortfolioService loanPortfolioService;
+
+    @Autowired
+    private PendingEmiService pendingEmiService;
+
+    @Autowired
+    private LoanSimulatorService loanSimulatorService;
+
+    @Autowired
+    private InterestAccrualService interestAccrualService;
+
+    @Autowired
+    private CardAuthorizationService cardAuthorizationService;
+
+    @Autowired
+    private PendingCountService pendingCountService;
+
+    @Autowired
+    private CardNetworkSimulator cardNetworkSimulator;
+
     /**
      * Create a new account
      */
@@ -149,17 +219,21 @@ public class RestAccountController {
     }
 
     /**
-     * Download CSV statement
+     * Download CSV statement (streamed; optional date range and gzip)
      */
     @GetMapping("/statement/{accNo}/download")
-    public ResponseEntity<InputStreamResource> downloadCsv(@PathVariable String accNo) {
-        ByteArrayInputStream bais = accountService.exportTransactionsToCsv(accNo);
-        InputStreamResource resource = new InputStreamResource(bais);
-        String filename = "mini_statement_" + accNo + ".csv";
+    public ResponseEntity<StreamingResponseBody> downloadCsv(@PathVariable String accNo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = out -> accountService.exportTransactionsToCsv(accNo,
+                from == null ? null : from.atStartOfDay(),
+                to == null ? null : to.plusDays(1).atStartOfDay(), gzip, out);
+        String filename = "mini_statement_" + accNo + (gzip ? ".csv.gz" : ".csv");
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .body(resource);
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : "text/csv"))
+                .body(body);
     }
 
     /**
@@ -174,6 +248,25 @@ public class RestAccountController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get one statement page (keyset pagination, pass nextCursor back for the next page)
+     */
+    @GetMapping("/statement/page")
+    public ResponseEntity<Map<String, Object>> getStatementPage(@RequestParam String accountNumber,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            Map<String, Object> response = accountService.getStatementPage(accountNumber, cursor, size);
+            response.put("success", true);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     /**
      * Initiate delete account (Check loans, send OTP)
      */
@@ -241,6 +334,18 @@ public class RestAccountController {
         return ResponseEntity.notFound().build();
     }
 
+    /**
+     * Admin: rebuild every account_statistics row from the transaction history (runs in background)
+     */
+    @PostMapping("/admin/statistics/backfill")
+    public ResponseEntity<Map<String, Object>> backfillStatistics(@RequestParam(defaultValue = "4") int parallelism) {
+        boolean started = accountStatisticsService.startBackfill(parallelism);
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", started);
+        response.put("message", started ? "Statistics backfill started" : "Statistics backfill already running");
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Apply for loan
      */
@@ -274,12 +379,11 @@ public class RestAccountController {
      * Admin: Get pending loans
      */
     @GetMapping("/admin/loan/requests")
-    public ResponseEntity<Map<String, Object>> getPendingLoans() {
+    public ResponseEntity<Map<String, Object>> getPendingLoans(@RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
         try {
-            List<Loan> loans = loanService.getPendingLoans();
-            Map<String, Object> response = new HashMap<>();
+            Map<String, Object> response = loanService.getPendingLoans(page, size);
             response.put("success", true);
-            response.put("loans", loans);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
@@ -309,6 +413,94 @@ public class RestAccountController {
         }
     }
 
+    /**
+     * Admin: Start (or resume) the EMI auto-debit run for a date in the background
+     */
+    @PostMapping("/admin/emi/run")
+    public ResponseEntity<Map<String, Object>> startEmiRun(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        Map<String, Object> response = new HashMap<>();
+        if (!emiEngineService.startRun(date != null ? date : LocalDate.now())) {
+            response.put("success", false);
+            response.put("message", "An EMI run is already in progress.");
+            return ResponseEntity.badRequest().body(response);
+        }
+        response.put("success", true);
+        response.put("message", "EMI run started.");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Admin: Recent EMI runs with their counts and checkpoints
+     */
+    @GetMapping("/admin/emi/runs")
+    public ResponseEntity<Map<String, Object>> getEmiRuns() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("running", emiEngineService.isRunning());
+        response.put("runs", emiEngineService.getRecentRuns());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Admin: Per-loan outcomes of an EMI run, optionally of one status
+     */
+    @GetMapping("/admin/emi/runs/{runId}/outcomes")
+    public ResponseEntity<Map<String, Object>> getEmiRunOutcomes(@PathVariable Long runId,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            Map<String, Object> response = emiEngineService.getOutcomes(runId, status, page, size);
+            response.put("success", true);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * Admin: Bounced EMIs waiting for funds (or given up on), newest first
+     */
+    @GetMapping("/admin/emi/pending")
+    public ResponseEntity<Map<String, Object>> getPendingEmis(@RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        Map<String, Object> response = pendingEmiService.getQueue(status, page, size);
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Admin: Run interest accrual (and the monthly credit on the credit day) for a date in the background
+     */
+    @PostMapping("/admin/interest/run")
+    public ResponseEntity<Map<String, Object>> startInterestRun(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        Map<String, Object> response = new HashMap<>();
+        if (!interestAccrualService.startRun(date != null ? date : LocalDate.now())) {
+            response.put("success", false);
+            response.put("message", "An interest run is already in progress.");
+            return ResponseEntity.badRequest().body(response);
+        }
+        response.put("success", true);
+        response.put("message", "Interest run started.");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Admin: Summary of the last interest run
+     */
+    @GetMapping("/admin/interest/runs/last")
+    public ResponseEntity<Map<String, Object>> getLastInterestRun() {
+        Map<String, Object> response = interestAccrualService.getLastRun();
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Admin: Reject loan
      */
@@ -341,6 +533,29 @@ public class RestAccountController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * EMI / total interest grid over ranges of loan amount and tenure
+     */
+    @GetMapping("/loan/simulate")
+    public ResponseEntity<Map<String, Object>> simulateLoans(@RequestParam double minAmount,
+            @RequestParam double maxAmount,
+            @RequestParam double amountStep,
+            @RequestParam int minMonths,
+            @RequestParam int maxMonths,
+            @RequestParam(defaultValue = "12") int monthsStep) {
+        try {
+            Map<String, Object> response = loanSimulatorService.simulate(minAmount, maxAmount, amountStep, minMonths,
+                    maxMonths, monthsStep);
+            response.put("success", true);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     /**
      * Get all loans for account
      */
@@ -353,6 +568,63 @@ public class RestAccountController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Amortization schedule of a loan
+     */
+    @GetMapping("/loan/{loanId}/schedule")
+    public ResponseEntity<Map<String, Object>> getLoanSchedule(@PathVariable Long loanId) {
+        try {
+            Map<String, Object> response = loanService.getLoanSchedule(loanId);
+            response.put("success", true);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * Admin: Loan portfolio by status, rate tier and days past due
+     */
+    @GetMapping("/admin/loans/portfolio")
+    public ResponseEntity<Map<String, Object>> getLoanPortfolio() {
+        try {
+            Map<String, Object> response = loanPortfolioService.getPortfolio();
+            response.put("success", true);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * Admin: Unpaid installments due in a date range (default: the next 30 days)
+     */
+    @GetMapping("/admin/loans/due")
+    public ResponseEntity<Map<String, Object>> getDueInstallments(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            LocalDate start = from != null ? from : LocalDate.now();
+            Map<String, Object> response = loanScheduleService.getDueInstallments(start,
+                    to != null ? to : start.plusDays(30), page, size);
+            response.put("success", true);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     /**
      * Issue debit card
      */
@@ -389,11 +661,10 @@ public class RestAccountController {
      * Admin: Get card requests
      */
     @GetMapping("/admin/card/requests")
-    public ResponseEntity<Map<String, Object>> getCardRequests() {
-        List<DebitCard> requests = debitCardService.getPendingRequests();
-        Map<String, Object> response = new HashMap<>();
+    public ResponseEntity<Map<String, Object>> getCardRequests(@RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        Map<String, Object> response = debitCardService.getPendingRequests(page, size);
         response.put("success", true);
-        response.put("requests", requests);
         return ResponseEntity.ok(response);
     }
 
@@ -484,6 +755,115 @@ public class RestAccountController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Authorize a card payment and hold the amount on the account
+     */
+    @PostMapping("/card/authorize")
+    public ResponseEntity<Map<String, Object>> authorizeCard(@RequestParam String cardNumber,
+            @RequestParam double amount, @RequestParam(required = false) String merchant,
+            @RequestParam(defaultValue = "false") boolean online) {
+        try {
+            Map<String, Object> response = cardAuthorizationService.authorize(cardNumber, amount, merchant, online);
+            response.put("success", true);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * Capture an authorized hold (the full amount unless a smaller amount is given)
+     */
+    @PostMapping("/card/capture")
+    public ResponseEntity<Map<String, Object>> captureCardHold(@RequestParam String holdId,
+            @RequestParam(required = false) Double amount) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            response.put("hold", cardAuthorizationService.capture(holdId, amount));
+            response.put("success", true);
+            response.put("message", "Payment captured");
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * Release an authorized hold without capturing it
+     */
+    @PostMapping("/card/release")
+    public ResponseEntity<Map<String, Object>> releaseCardHold(@RequestParam String holdId) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            response.put("hold", cardAuthorizationService.release(holdId));
+            response.put("success", true);
+            response.put("message", "Hold released");
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * Admin: Card authorization counters
+     */
+    @GetMapping("/admin/cards/authorizations")
+    public ResponseEntity<Map<String, Object>> getCardAuthorizationStats() {
+        Map<String, Object> response = cardAuthorizationService.getStats();
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Admin: Last nightly reset of card daily spend (cards reset, chunks, duration)
+     */
+    @GetMapping("/admin/cards/limit-reset")
+    public ResponseEntity<Map<String, Object>> getCardLimitResetStats() {
+        Map<String, Object> response = debitCardService.getLimitResetStats();
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Admin: Start a card network simulation (authorizations per second for a number of seconds)
+     */
+    @PostMapping("/admin/card-sim/run")
+    public ResponseEntity<Map<String, Object>> startCardSimulation(@RequestParam(required = false) Integer rate,
+            @RequestParam(required = false) Integer durationSeconds) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            if (!cardNetworkSimulator.startRun(rate, durationSeconds)) {
+                response.put("success", false);
+                response.put("message", "A card simulation is already running.");
+                return ResponseEntity.badRequest().body(response);
+            }
+            response.put("success", true);
+            response.put("message", "Card simulation started.");
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * Admin: Results of the last card network simulation (throughput, latency, limit violations)
+     */
+    @GetMapping("/admin/card-sim/last")
+    public ResponseEntity<Map<String, Object>> getLastCardSimulation() {
+        Map<String, Object> response = cardNetworkSimulator.getLastRun();
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Request a new cheque book
      */
@@ -588,9 +968,15 @@ public class RestAccountController {
     @PostMapping("/auth/login/verify-otp")
     public ResponseEntity<Map<String, Object>> verifyLoginOtp(
             @RequestParam String accountNumber,
-            @RequestParam String otp) {
+            @RequestParam String otp,
+            @RequestHeader(value = HttpHeaders.USER_AGENT, required = false) String userAgent,
+            jakarta.servlet.http.HttpServletRequest request) {
         try {
             boolean isValid = authService.verifyLoginOtp(accountNumber, otp);
+            try {
+                loginHistoryService.recordLogin(accountNumber, request.getRemoteAddr(), userAgent, isValid);
+            } catch (Exception ignored) {
+            }
             Map<String, Object> response = new HashMap<>();
             response.put("success", isValid);
             response.put("message", "OTP verified successfully. You can now login.");
@@ -679,25 +1065,23 @@ public class RestAccountController {
     }
 
     /**
-     * Admin: system statistics (counts and sums)
+     * Admin: pending card, loan, delete and help request counts for the admin header
      */
+    @GetMapping("/admin/pending-counts")
+    public ResponseEntity<Map<String, Object>> getPendingCounts() {
+        Map<String, Object> response = pendingCountService.getPendingCounts();
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+
     /**
-     * Admin: system statistics (counts and sums)
+     * Admin: system statistics (counts and sums), served from a refresh-ahead cache
      */
     @GetMapping("/admin/stats")
     public ResponseEntity<Map<String, Object>> getSystemStats() {
         try {
-            Map<String, Object> stats = new HashMap<>();
-            long totalAccounts = accountService.countAccounts();
-            long totalTransactions = accountService.countTransactions();
-            long activeUsers = accountService.countActiveUsers();
-            double totalBalance = accountService.sumBalances();
-
+            Map<String, Object> stats = adminStatsService.getStats();
             stats.put("success", true);
-            stats.put("totalAccounts", totalAccounts);
-            stats.put("totalTransactions", totalTransactions);
-            stats.put("activeUsers", activeUsers);
-            stats.put("totalBalance", totalBalance);
             return ResponseEntity.ok(stats);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
@@ -707,6 +1091,42 @@ public class RestAccountController {
         }
     }
 
+    /**
+     * Admin: live per-type counters pushed every second as Server-Sent Events ("metrics")
+     */
+    @GetMapping(path = "/admin/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLiveMetrics() {
+        return liveMetricsService.subscribe();
+    }
+
+    /**
+     * Admin: current live counters with the per-minute series of the last hour
+     */
+    @GetMapping("/admin/live/snapshot")
+    public ResponseEntity<Map<String, Object>> getLiveMetrics() {
+        Map<String, Object> response = liveMetricsService.snapshot();
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Admin: distinct active accounts (DAU / WAU / MAU) as of a day, default today
+     */
+    @GetMapping("/admin/active-users")
+    public ResponseEntity<Map<String, Object>> getActiveUsers(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        try {
+            Map<String, Object> response = activeUserService.getActiveUsers(date != null ? date : LocalDate.now());
+            response.put("success", true);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     /**
      * Admin Analytics Endpoint
      * Combines Account/Transaction stats and Card request stats
@@ -720,15 +1140,103 @@ public class RestAccountController {
     }
 
     /**
-     * Admin: list all accounts
+     * Admin: re-derive daily rollups for [from, to] from the source tables
      */
-    @GetMapping("/admin/accounts")
-    public ResponseEntity<Map<String, Object>> listAllAccounts() {
+    @PostMapping("/admin/analytics/rollup/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRollups(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : end.minusDays(365);
+            int days = dailyRollupService.rebuild(start, end);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Rebuilt " + days + " daily rollup rows");
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * Admin: ad-hoc transaction aggregates from the in-memory column store
+     * (groupBy DAY, MONTH, TYPE or ACCOUNT; needs bank.analytics.columnar.enabled=true)
+     */
+    @GetMapping("/admin/analytics/columnar")
+    public ResponseEntity<Map<String, Object>> getColumnarAnalytics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") String groupBy,
+            @RequestParam(required = false) String type) {
+        Map<String, Object> response = new HashMap<>();
+        if (!transactionColumnStore.isReady()) {
+            response.put("success", false);
+            response.put("message", transactionColumnStore.isEnabled()
+                    ? "Columnar store is still loading"
+                    : "Columnar store is disabled");
+            return ResponseEntity.badRequest().body(response);
+        }
+        try {
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : end.minusDays(30);
+            TransactionColumnStore.GroupBy grouping = TransactionColumnStore.GroupBy.valueOf(groupBy.toUpperCase());
+            long started = System.nanoTime();
+            List<Map<String, Object>> rows = transactionColumnStore.aggregate(start.atStartOfDay(),
+                    end.plusDays(1).atStartOfDay(), type, grouping);
+            response.put("success", true);
+            response.put("from", start);
+            response.put("to", end);
+            response.put("groupBy", grouping);
+            response.put("rows", rows);
+            response.put("storedRows", transactionColumnStore.size());
+            response.put("elapsedMicros", (System.nanoTime() - started) / 1000);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * Admin: transaction volume over a long range (defaults to the last quarter),
+     * per DAY, WEEK, MONTH or QUARTER with a per-type breakdown
+     */
+    @GetMapping("/admin/reports/volume")
+    public ResponseEntity<Map<String, Object>> getVolumeReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "MONTH") String granularity,
+            @RequestParam(required = false) String type) {
         try {
-            java.util.List<Account> accounts = accountService.getAllAccounts();
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : end.minusMonths(3).plusDays(1);
+            Map<String, Object> response = volumeReportService.volumeReport(start, end,
+                    VolumeReportService.Granularity.valueOf(granularity.toUpperCase()), type);
+            response.put("success", true);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * Admin: list accounts, one page at a time (sort=field[,asc|desc])
+     */
+    @GetMapping("/admin/accounts")
+    public ResponseEntity<Map<String, Object>> listAllAccounts(@RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String sort) {
+        try {
+            Map<String, Object> response = accountService.getAccountsPage(page, size, sort);
             response.put("success", true);
-            response.put("accounts", accounts);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
@@ -739,21 +1247,79 @@ public class RestAccountController {
     }
 
     /**
-     * Admin: list all transactions
+     * Admin: stream every account as NDJSON (optional creation date range, status, gzip)
+     */
+    @GetMapping("/admin/export/accounts")
+    public ResponseEntity<StreamingResponseBody> exportAccounts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        String normalizedStatus = status == null || status.isBlank() ? null : status.trim().toUpperCase();
+        if (normalizedStatus != null && !AdminExportService.ACCOUNT_STATUSES.contains(normalizedStatus)) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> adminExportService.exportAccounts(
+                from == null ? null : from.atStartOfDay(),
+                to == null ? null : to.plusDays(1).atStartOfDay(), normalizedStatus, gzip, out);
+        return ndjson("accounts", gzip, body);
+    }
+
+    /**
+     * Admin: stream every transaction as NDJSON (optional date range, type, gzip)
+     */
+    @GetMapping("/admin/export/transactions")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        String normalizedType = type == null || type.isBlank() ? null : type.trim().toUpperCase();
+        StreamingResponseBody body = out -> adminExportService.exportTransactions(
+                from == null ? null : from.atStartOfDay(),
+                to == null ? null : to.plusDays(1).atStartOfDay(), normalizedType, gzip, out);
+        return ndjson("transactions", gzip, body);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> ndjson(String name, boolean gzip, StreamingResponseBody body) {
+        String filename = name + "_" + LocalDate.now() + (gzip ? ".ndjson.gz" : ".ndjson");
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : "application/x-ndjson"))
+                .body(body);
+    }
+
+    /**
+     * Admin: typeahead over account numbers and holder names (prefix match)
+     */
+    @GetMapping("/admin/accounts/typeahead")
+    public ResponseEntity<Map<String, Object>> typeaheadAccounts(@RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        Map<String, Object> response = new HashMap<>();
+        long started = System.nanoTime();
+        response.put("accounts", accountService.typeaheadAccounts(q, limit));
+        response.put("elapsedMicros", (System.nanoTime() - started) / 1000);
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Admin: list transactions newest first (cursor = nextCursor of the previous page),
+     * or search them when `search` is given
      */
     @GetMapping("/admin/transactions")
-    public ResponseEntity<Map<String, Object>> listAllTransactions(@RequestParam(required = false) String search) {
+    public ResponseEntity<Map<String, Object>> listAllTransactions(@RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String cursor) {
         try {
-            java.util.List<Transaction> txns;
+            Map<String, Object> response;
             if (search != null && !search.trim().isEmpty()) {
-                txns = accountService.searchTransactions(search);
+                response = accountService.searchTransactionsPage(search, page, size);
             } else {
-                txns = accountService.getAllTransactions();
+                response = accountService.getTransactionsPage(cursor, size);
             }
-
-            Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("transactions", txns);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
@@ -898,12 +1464,11 @@ public class RestAccountController {
      * Admin: Get pending delete requests
      */
     @GetMapping("/admin/delete/requests")
-    public ResponseEntity<Map<String, Object>> getDeleteRequests() {
+    public ResponseEntity<Map<String, Object>> getDeleteRequests(@RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
         try {
-            List<org.example.bankingsystem.model.DeleteRequest> requests = accountService.getPendingDeleteRequests();
-            Map<String, Object> response = new HashMap<>();
+            Map<String, Object> response = accountService.getPendingDeleteRequests(page, size);
             response.put("success", true);
-            response.put("requests", requests);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
@@ -952,12 +1517,16 @@ public class RestAccountController {
     }
 
     /**
-     * User Analytics: Get last 30 days stats
+     * User Analytics: daily stats for [from, to] (defaults to the last 30 days)
      */
     @GetMapping("/analytics/{accountNumber}")
-    public ResponseEntity<Map<String, Object>> getAnalytics(@PathVariable String accountNumber) {
+    public ResponseEntity<Map<String, Object>> getAnalytics(@PathVariable String accountNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
         try {
-            Map<String, Object> data = accountService.getAnalyticsData(accountNumber);
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : end.minusDays(29);
+            Map<String, Object> data = accountService.getAnalyticsData(accountNumber, start, end);
             return ResponseEntity.ok(data);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
@@ -49,11 +49,10 @@ public class RestHelpController {
     }
 
     @GetMapping("/admin/all")
-    public ResponseEntity<Map<String, Object>> getAllRequests() {
-        List<HelpRequest> requests = helpService.getAllRequests();
-        Map<String, Object> response = new HashMap<>();
+    public ResponseEntity<Map<String, Object>> getAllRequests(@RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "50") int size) {
+        Map<String, Object> response = helpService.getAllRequests(status, page, size);
         response.put("success", true);
-        response.put("requests", requests);
         return ResponseEntity.ok(response);
     }
 
@@ -0,0 +1,79 @@
+package org.example.bankingsystem.event;
+
+import org.example.bankingsystem.model.Loan;
+
+import java.time.LocalDate;
+
+/**
+ * Published by LoanService whenever a loan is applied for, approved, rejected or repaid,
+ * with the loan's portfolio-relevant state before and after the change (before is null
+ * for a new application). Listeners keeping aggregates apply after - before.
+ */
+public class LoanChangedEvent {
+
+    private final State before;
+    private final State after;
+
+    public LoanChangedEvent(State before, State after) {
+        this.before = before;
+        this.after = after;
+    }
+
+    public State getBefore() {
+        return before;
+    }
+
+    public State getAfter() {
+        return after;
+    }
+
+    // Immutable copy of the fields portfolio aggregates are keyed and summed on
+    public static final class State {
+        private final String status;
+        private final double rateOfInterest;
+        private final double loanAmount;
+        private final double outstandingPrincipal;
+        private final LocalDate nextDueDate;
+
+        private State(Loan loan) {
+            this.status = loan.getStatus();
+            this.rateOfInterest = loan.getRateOfInterest();
+            this.loanAmount = loan.getLoanAmount();
+            this.outstandingPrincipal = outstandingPrincipal(loan);
+            this.nextDueDate = loan.getNextDueDate();
+        }
+
+        public static State of(Loan loan) {
+            return new State(loan);
+        }
+
+        // Flat-rate schedule: each EMI repays loanAmount / durationMonths of principal.
+        // Must agree with LoanRepository.portfolioTotals.
+        private static double outstandingPrincipal(Loan loan) {
+            if (!"ACTIVE".equals(loan.getStatus()) || loan.getDurationMonths() <= 0) {
+                return 0;
+            }
+            return loan.getLoanAmount() * (loan.getDurationMonths() - loan.getMonthsPaid()) / loan.getDurationMonths();
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public double getRateOfInterest() {
+            return rateOfInterest;
+        }
+
+        public double getLoanAmount() {
+            return loanAmount;
+        }
+
+        public double getOutstandingPrincipal() {
+            return outstandingPrincipal;
+        }
+
+        public LocalDate getNextDueDate() {
+            return nextDueDate;
+        }
+    }
+}
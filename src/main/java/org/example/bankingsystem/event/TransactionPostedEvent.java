@@ -0,0 +1,22 @@
+package org.example.bankingsystem.event;
+
+import org.example.bankingsystem.model.Transaction;
+
+/**
+ * Published by TransactionService after a transaction row is saved.
+ * Plain @EventListener handlers run inside the posting's database transaction;
+ * use @TransactionalEventListener(AFTER_COMMIT) for side effects that must only
+ * see committed postings.
+ */
+public class TransactionPostedEvent {
+
+    private final Transaction transaction;
+
+    public TransactionPostedEvent(Transaction transaction) {
+        this.transaction = transaction;
+    }
+
+    public Transaction getTransaction() {
+        return transaction;
+    }
+}
@@ -3,7 +3,10 @@ package org.example.bankingsystem.model;
 import jakarta.persistence.*;
 import java.util.Random;
 
+// Only changed columns are written, and never the interest columns (InterestAccrualService
+// updates those with SQL), so a save cannot put back values read before an accrual run
 @Entity
+@org.hibernate.annotations.DynamicUpdate
 public class Account {
 
     @Id
@@ -21,6 +24,10 @@ public class Account {
     private double dailyExpenseLimit = -1; // -1 means no limit
     private String nomineeRelation;
     private java.time.LocalDateTime createdDate = java.time.LocalDateTime.now();
+    @Column(updatable = false)
+    private double accruedInterest = 0; // earned but not yet credited (credited monthly)
+    @Column(updatable = false)
+    private java.time.LocalDate lastAccrualDate; // last day interest was accrued for
 
     public Account() {
         this.accountNumber = generateAccountNumber();
@@ -142,4 +149,20 @@ public class Account {
     public void setCreatedDate(java.time.LocalDateTime createdDate) {
         this.createdDate = createdDate;
     }
+
+    public double getAccruedInterest() {
+        return accruedInterest;
+    }
+
+    public void setAccruedInterest(double accruedInterest) {
+        this.accruedInterest = accruedInterest;
+    }
+
+    public java.time.LocalDate getLastAccrualDate() {
+        return lastAccrualDate;
+    }
+
+    public void setLastAccrualDate(java.time.LocalDate lastAccrualDate) {
+        this.lastAccrualDate = lastAccrualDate;
+    }
 }
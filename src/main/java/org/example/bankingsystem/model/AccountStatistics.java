@@ -0,0 +1,146 @@
+package org.example.bankingsystem.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Running totals per account, maintained by AccountStatisticsService on every posting
+@Entity
+@Table(name = "account_statistics")
+public class AccountStatistics {
+
+    @Id
+    private String accountNumber;
+    private double depositTotal;
+    private long depositCount;
+    private double withdrawTotal;
+    private long withdrawCount;
+    private double transferInTotal;
+    private long transferInCount;
+    private double transferOutTotal;
+    private long transferOutCount;
+    private double billPaymentTotal;
+    private long billPaymentCount;
+    private double otherTotal; // loans and any other posting type
+    private long otherCount;
+    private LocalDateTime lastActivity;
+
+    public AccountStatistics() {
+    }
+
+    public AccountStatistics(String accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    public long getTotalCount() {
+        return depositCount + withdrawCount + transferInCount + transferOutCount + billPaymentCount + otherCount;
+    }
+
+    // Getters and setters
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public double getDepositTotal() {
+        return depositTotal;
+    }
+
+    public void setDepositTotal(double depositTotal) {
+        this.depositTotal = depositTotal;
+    }
+
+    public long getDepositCount() {
+        return depositCount;
+    }
+
+    public void setDepositCount(long depositCount) {
+        this.depositCount = depositCount;
+    }
+
+    public double getWithdrawTotal() {
+        return withdrawTotal;
+    }
+
+    public void setWithdrawTotal(double withdrawTotal) {
+        this.withdrawTotal = withdrawTotal;
+    }
+
+    public long getWithdrawCount() {
+        return withdrawCount;
+    }
+
+    public void setWithdrawCount(long withdrawCount) {
+        this.withdrawCount = withdrawCount;
+    }
+
+    public double getTransferInTotal() {
+        return transferInTotal;
+    }
+
+    public void setTransferInTotal(double transferInTotal) {
+        this.transferInTotal = transferInTotal;
+    }
+
+    public long getTransferInCount() {
+        return transferInCount;
+    }
+
+    public void setTransferInCount(long transferInCount) {
+        this.transferInCount = transferInCount;
+    }
+
+    public double getTransferOutTotal() {
+        return transferOutTotal;
+    }
+
+    public void setTransferOutTotal(double transferOutTotal) {
+        this.transferOutTotal = transferOutTotal;
+    }
+
+    public long getTransferOutCount() {
+        return transferOutCount;
+    }
+
+    public void setTransferOutCount(long transferOutCount) {
+        this.transferOutCount = transferOutCount;
+    }
+
+    public double getBillPaymentTotal() {
+        return billPaymentTotal;
+    }
+
+    public void setBillPaymentTotal(double billPaymentTotal) {
+        this.billPaymentTotal = billPaymentTotal;
+    }
+
+    public long getBillPaymentCount() {
+        return billPaymentCount;
+    }
+
+    public void setBillPaymentCount(long billPaymentCount) {
+        this.billPaymentCount = billPaymentCount;
+    }
+
+    public double getOtherTotal() {
+        return otherTotal;
+    }
+
+    public void setOtherTotal(double otherTotal) {
+        this.otherTotal = otherTotal;
+    }
+
+    public long getOtherCount() {
+        return otherCount;
+    }
+
+    public void setOtherCount(long otherCount) {
+        this.otherCount = otherCount;
+    }
+
+    public LocalDateTime getLastActivity() {
+        return lastActivity;
+    }
+
+    public void setLastActivity(LocalDateTime lastActivity) {
+        this.lastActivity = lastActivity;
+    }
+}
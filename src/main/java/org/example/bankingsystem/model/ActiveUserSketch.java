@@ -0,0 +1,60 @@
+package org.example.bankingsystem.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// HyperLogLog registers of the distinct accounts active on one day, maintained by ActiveUserService
+@Entity
+@Table(name = "active_user_sketch")
+public class ActiveUserSketch {
+
+    @Id
+    private LocalDate sketchDate;
+
+    // Accounts with at least one posting that day
+    @Column(length = 4096)
+    private byte[] transacting;
+
+    // Accounts with at least one successful login that day
+    @Column(length = 4096)
+    private byte[] loggedIn;
+
+    private LocalDateTime updatedAt;
+
+    public ActiveUserSketch() {
+    }
+
+    public ActiveUserSketch(LocalDate sketchDate) {
+        this.sketchDate = sketchDate;
+    }
+
+    // Getters and setters
+    public LocalDate getSketchDate() {
+        return sketchDate;
+    }
+
+    public byte[] getTransacting() {
+        return transacting;
+    }
+
+    public void setTransacting(byte[] transacting) {
+        this.transacting = transacting;
+    }
+
+    public byte[] getLoggedIn() {
+        return loggedIn;
+    }
+
+    public void setLoggedIn(byte[] loggedIn) {
+        this.loggedIn = loggedIn;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.bankingsystem.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Funds reserved on an account by a card authorization until it is captured, released or expires
+@Entity
+@Table(name = "card_hold", uniqueConstraints = @UniqueConstraint(name = "uk_card_hold_hold_id", columnNames = "holdId"), indexes = @Index(name = "idx_card_hold_status_authorized", columnList = "status, authorizedAt"))
+public class CardHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String holdId; // reference returned to the merchant
+    private String cardNumber;
+    private String accountNumber;
+    private double amount; // authorized amount
+    private double capturedAmount = 0;
+    private String merchant;
+    private String status = "AUTHORIZED"; // AUTHORIZED, CAPTURED, RELEASED, EXPIRED
+    private LocalDateTime authorizedAt = LocalDateTime.now();
+    private LocalDateTime resolvedAt;
+    private Long transactionId; // Transaction.id of the capture posting
+
+    public CardHold() {
+    }
+
+    public CardHold(String holdId, String cardNumber, String accountNumber, double amount, String merchant) {
+        this.holdId = holdId;
+        this.cardNumber = cardNumber;
+        this.accountNumber = accountNumber;
+        this.amount = amount;
+        this.merchant = merchant;
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public String getHoldId() {
+        return holdId;
+    }
+
+    public String getCardNumber() {
+        return cardNumber;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public double getCapturedAmount() {
+        return capturedAmount;
+    }
+
+    public void setCapturedAmount(double capturedAmount) {
+        this.capturedAmount = capturedAmount;
+    }
+
+    public String getMerchant() {
+        return merchant;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getAuthorizedAt() {
+        return authorizedAt;
+    }
+
+    public LocalDateTime getResolvedAt() {
+        return resolvedAt;
+    }
+
+    public void setResolvedAt(LocalDateTime resolvedAt) {
+        this.resolvedAt = resolvedAt;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+}
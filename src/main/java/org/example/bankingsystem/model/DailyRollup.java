@@ -0,0 +1,61 @@
+package org.example.bankingsystem.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+// Admin dashboard counters for one calendar day, maintained by DailyRollupService
+@Entity
+@Table(name = "daily_rollup")
+public class DailyRollup {
+
+    @Id
+    private LocalDate rollupDate;
+    private double transactionVolume;
+    private long transactionCount;
+    private long newAccounts;
+    private long cardRequests;
+
+    public DailyRollup() {
+    }
+
+    public DailyRollup(LocalDate rollupDate) {
+        this.rollupDate = rollupDate;
+    }
+
+    // Getters and setters
+    public LocalDate getRollupDate() {
+        return rollupDate;
+    }
+
+    public double getTransactionVolume() {
+        return transactionVolume;
+    }
+
+    public void setTransactionVolume(double transactionVolume) {
+        this.transactionVolume = transactionVolume;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+
+    public long getNewAccounts() {
+        return newAccounts;
+    }
+
+    public void setNewAccounts(long newAccounts) {
+        this.newAccounts = newAccounts;
+    }
+
+    public long getCardRequests() {
+        return cardRequests;
+    }
+
+    public void setCardRequests(long cardRequests) {
+        this.cardRequests = cardRequests;
+    }
+}
@@ -5,6 +5,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = @Index(name = "idx_debit_card_status_issued", columnList = "status, issuedDate"))
 public class DebitCard {
 
     @Id
@@ -18,7 +19,11 @@ public class DebitCard {
     private LocalDateTime issuedDate = LocalDateTime.now();
     private String status = "ACTIVE"; // ACTIVE, BLOCKED, EXPIRED
     private double dailyLimit = 50000; // Default daily limit
+    // Written only by CardAuthorizationService and the nightly reset (SQL), never by a card save,
+    // so a status or limit change cannot put back a spend read before newer authorizations
+    @Column(updatable = false)
     private double currentDaySpent = 0;
+    @Column(updatable = false)
     private LocalDate lastResetDate = LocalDate.now();
     private String cardType = "VISA"; // VISA, MASTERCARD
     private String pin;
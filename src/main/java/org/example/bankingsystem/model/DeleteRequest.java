@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = @Index(name = "idx_delete_request_status_created", columnList = "status, createdAt"))
 public class DeleteRequest {
 
     @Id
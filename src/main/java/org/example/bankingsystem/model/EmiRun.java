@@ -0,0 +1,113 @@
+package org.example.bankingsystem.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// One scheduled EMI auto-debit run over the loans due on runDate; lastLoanId is the resume checkpoint
+@Entity
+@Table(name = "emi_run", uniqueConstraints = @UniqueConstraint(name = "uk_emi_run_date", columnNames = "runDate"))
+public class EmiRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private LocalDate runDate;
+    private String status = "RUNNING"; // RUNNING, COMPLETED, FAILED
+    private LocalDateTime startedAt = LocalDateTime.now();
+    private LocalDateTime finishedAt;
+    private long lastLoanId; // every due loan with a smaller id has an outcome
+    private long processed;
+    private long succeeded;
+    private long insufficientFunds;
+    private long failed;
+    private String message;
+
+    public EmiRun() {
+    }
+
+    public EmiRun(LocalDate runDate) {
+        this.runDate = runDate;
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDate getRunDate() {
+        return runDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public long getLastLoanId() {
+        return lastLoanId;
+    }
+
+    public void setLastLoanId(long lastLoanId) {
+        this.lastLoanId = lastLoanId;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(long succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public long getInsufficientFunds() {
+        return insufficientFunds;
+    }
+
+    public void setInsufficientFunds(long insufficientFunds) {
+        this.insufficientFunds = insufficientFunds;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.bankingsystem.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// What one EMI run did with one due loan; unique per (run, loan) so a resumed run never debits twice
+@Entity
+@Table(name = "emi_run_outcome", uniqueConstraints = @UniqueConstraint(name = "uk_emi_run_outcome_run_loan", columnNames = {
+        "runId", "loanId" }))
+public class EmiRunOutcome {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private Long runId;
+    private Long loanId; // Loan.id
+    private String accountNumber;
+    private String status; // PAID, INSUFFICIENT_FUNDS, SKIPPED, FAILED
+    private double amount;
+    private String message;
+    private LocalDateTime processedAt = LocalDateTime.now();
+
+    public EmiRunOutcome() {
+    }
+
+    public EmiRunOutcome(Long runId, Long loanId, String accountNumber, String status, double amount,
+            String message) {
+        this.runId = runId;
+        this.loanId = loanId;
+        this.accountNumber = accountNumber;
+        this.status = status;
+        this.amount = amount;
+        this.message = message;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getRunId() {
+        return runId;
+    }
+
+    public Long getLoanId() {
+        return loanId;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = { @Index(name = "idx_help_request_status_created", columnList = "status, createdAt"),
+        @Index(name = "idx_help_request_created", columnList = "createdAt") })
 public class HelpRequest {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
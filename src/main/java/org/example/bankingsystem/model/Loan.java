@@ -1,9 +1,12 @@
 package org.example.bankingsystem.model;
 
 import jakarta.persistence.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = { @Index(name = "idx_loan_status_next_due_id", columnList = "status, nextDueDate, id"),
+        @Index(name = "idx_loan_status_created", columnList = "status, createdAt") })
 public class Loan {
 
     @Id
@@ -20,6 +23,7 @@ public class Loan {
     private int monthsPaid = 0;
     private double amountPaid = 0;
     private String loanId; // Unique transaction ID like TXN123456
+    private LocalDate nextDueDate; // Due date of the first unpaid installment (null once closed)
 
     public Loan() {
     }
@@ -136,4 +140,12 @@ public class Loan {
     public void setLoanId(String loanId) {
         this.loanId = loanId;
     }
+
+    public LocalDate getNextDueDate() {
+        return nextDueDate;
+    }
+
+    public void setNextDueDate(LocalDate nextDueDate) {
+        this.nextDueDate = nextDueDate;
+    }
 }
@@ -0,0 +1,69 @@
+package org.example.bankingsystem.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// One row of a loan's amortization schedule, generated in full when the loan is approved
+@Entity
+@Table(name = "loan_installment", uniqueConstraints = @UniqueConstraint(name = "uk_loan_installment_loan_no", columnNames = {
+        "loanId", "installmentNo" }), indexes = @Index(name = "idx_loan_installment_status_due", columnList = "status, dueDate, loanId"))
+public class LoanInstallment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private Long loanId; // Loan.id
+    private int installmentNo; // 1-based
+    private LocalDate dueDate;
+    private double amount; // principal + interest, equals Loan.monthlyEmi
+    private double principal;
+    private double interest;
+    private double outstandingPrincipal; // left to repay once this installment is paid
+    private String status = "DUE"; // DUE, PAID
+    private LocalDateTime paidAt;
+
+    public LoanInstallment() {
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getLoanId() {
+        return loanId;
+    }
+
+    public int getInstallmentNo() {
+        return installmentNo;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public double getPrincipal() {
+        return principal;
+    }
+
+    public double getInterest() {
+        return interest;
+    }
+
+    public double getOutstandingPrincipal() {
+        return outstandingPrincipal;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getPaidAt() {
+        return paidAt;
+    }
+}
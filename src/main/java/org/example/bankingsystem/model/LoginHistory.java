@@ -13,6 +13,7 @@ public class LoginHistory {
 
     private String accountNumber;
 
+    @Column(nullable = false) // partition key, see V2 migration
     private LocalDateTime loginTime = LocalDateTime.now();
 
     private String ipAddress;
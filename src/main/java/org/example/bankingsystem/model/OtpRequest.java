@@ -11,6 +11,7 @@ public class OtpRequest {
     private Long id;
     private String accountNumber;
     private String otp;
+    @Column(nullable = false) // partition key, see V2 migration
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime expiresAt;
     private boolean used = false;
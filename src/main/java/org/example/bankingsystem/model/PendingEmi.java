@@ -0,0 +1,106 @@
+package org.example.bankingsystem.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// An EMI that could not be debited for lack of balance, retried when money reaches the account
+@Entity
+@Table(name = "pending_emi", uniqueConstraints = @UniqueConstraint(name = "uk_pending_emi_loan_installment", columnNames = {
+        "loanId", "installmentNo" }), indexes = @Index(name = "idx_pending_emi_account_status", columnList = "accountNumber, status"))
+public class PendingEmi {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private Long loanId; // Loan.id
+    private int installmentNo;
+    private String accountNumber;
+    private double amount; // the EMI
+    private double penalty; // late fee assessed when the EMI was missed
+    private boolean penaltyPaid = false;
+    private String status = "PENDING"; // PENDING, FEE_DUE (EMI paid, late fee not yet), PAID, EXHAUSTED, CANCELLED
+    private int attempts = 0; // days on which a retry still found too little balance
+    private LocalDateTime createdAt = LocalDateTime.now();
+    private LocalDateTime lastAttemptAt;
+    private LocalDateTime resolvedAt;
+
+    public PendingEmi() {
+    }
+
+    public PendingEmi(Long loanId, int installmentNo, String accountNumber, double amount, double penalty) {
+        this.loanId = loanId;
+        this.installmentNo = installmentNo;
+        this.accountNumber = accountNumber;
+        this.amount = amount;
+        this.penalty = penalty;
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getLoanId() {
+        return loanId;
+    }
+
+    public int getInstallmentNo() {
+        return installmentNo;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public double getPenalty() {
+        return penalty;
+    }
+
+    public boolean isPenaltyPaid() {
+        return penaltyPaid;
+    }
+
+    public void setPenaltyPaid(boolean penaltyPaid) {
+        this.penaltyPaid = penaltyPaid;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getLastAttemptAt() {
+        return lastAttemptAt;
+    }
+
+    public void setLastAttemptAt(LocalDateTime lastAttemptAt) {
+        this.lastAttemptAt = lastAttemptAt;
+    }
+
+    public LocalDateTime getResolvedAt() {
+        return resolvedAt;
+    }
+
+    public void setResolvedAt(LocalDateTime resolvedAt) {
+        this.resolvedAt = resolvedAt;
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = @Index(name = "idx_transaction_account_date_id", columnList = "accountNumber, date, id"))
 public class Transaction {
 
     @Id
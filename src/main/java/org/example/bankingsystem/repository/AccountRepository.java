@@ -9,4 +9,29 @@ public interface AccountRepository extends JpaRepository<Account, String> {
     java.util.List<Account> findByNameContainingIgnoreCase(String name);
 
     Optional<Account> findByAccountNumber(String accountNumber);
+
+    // Reads the account with its row locked (SELECT ... FOR UPDATE) for a balance change
+    @org.springframework.data.jpa.repository.Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+    @org.springframework.data.jpa.repository.Query("SELECT a FROM Account a WHERE a.accountNumber = :accountNumber")
+    Optional<Account> findForUpdate(
+            @org.springframework.data.repository.query.Param("accountNumber") String accountNumber);
+
+    // Admin account list: one page, only the displayed columns
+    org.springframework.data.domain.Page<org.example.bankingsystem.repository.projection.AccountSummary> findAllProjectedBy(
+            org.springframework.data.domain.Pageable pageable);
+
+    long countByActive(boolean active);
+
+    @org.springframework.data.jpa.repository.Query("SELECT COUNT(a) FROM Account a WHERE a.balance > 0")
+    long countWithPositiveBalance();
+
+    @org.springframework.data.jpa.repository.Query("SELECT COALESCE(SUM(a.balance), 0) FROM Account a")
+    double sumBalances();
+
+    @org.springframework.data.jpa.repository.Query("SELECT CAST(a.createdDate AS LocalDate) AS bucketDate, " +
+            "COUNT(a) AS bucketCount FROM Account a WHERE a.createdDate >= :from AND a.createdDate < :to " +
+            "GROUP BY CAST(a.createdDate AS LocalDate)")
+    java.util.List<org.example.bankingsystem.repository.projection.DailyCount> countCreatedByDay(
+            @org.springframework.data.repository.query.Param("from") java.time.LocalDateTime from,
+            @org.springframework.data.repository.query.Param("to") java.time.LocalDateTime to);
 }
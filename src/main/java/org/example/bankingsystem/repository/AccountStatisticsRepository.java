@@ -0,0 +1,41 @@
+package org.example.bankingsystem.repository;
+
+import org.example.bankingsystem.model.AccountStatistics;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+
+public interface AccountStatisticsRepository extends JpaRepository<AccountStatistics, String> {
+
+    // Atomic upsert: adds one posting to the bucket selected by the caller (all other deltas are 0)
+    @Modifying
+    @Query(value = "INSERT INTO account_statistics (account_number, deposit_total, deposit_count, withdraw_total, "
+            + "withdraw_count, transfer_in_total, transfer_in_count, transfer_out_total, transfer_out_count, "
+            + "bill_payment_total, bill_payment_count, other_total, other_count, last_activity) "
+            + "VALUES (:acc, :deposit, :depositCount, :withdraw, :withdrawCount, :transferIn, :transferInCount, "
+            + ":transferOut, :transferOutCount, :billPayment, :billPaymentCount, :other, :otherCount, :at) "
+            + "ON DUPLICATE KEY UPDATE deposit_total = deposit_total + VALUES(deposit_total), "
+            + "deposit_count = deposit_count + VALUES(deposit_count), "
+            + "withdraw_total = withdraw_total + VALUES(withdraw_total), "
+            + "withdraw_count = withdraw_count + VALUES(withdraw_count), "
+            + "transfer_in_total = transfer_in_total + VALUES(transfer_in_total), "
+            + "transfer_in_count = transfer_in_count + VALUES(transfer_in_count), "
+            + "transfer_out_total = transfer_out_total + VALUES(transfer_out_total), "
+            + "transfer_out_count = transfer_out_count + VALUES(transfer_out_count), "
+            + "bill_payment_total = bill_payment_total + VALUES(bill_payment_total), "
+            + "bill_payment_count = bill_payment_count + VALUES(bill_payment_count), "
+            + "other_total = other_total + VALUES(other_total), "
+            + "other_count = other_count + VALUES(other_count), "
+            + "last_activity = GREATEST(COALESCE(last_activity, VALUES(last_activity)), VALUES(last_activity))",
+            nativeQuery = true)
+    void addPosting(@Param("acc") String accountNumber,
+            @Param("deposit") double deposit, @Param("depositCount") long depositCount,
+            @Param("withdraw") double withdraw, @Param("withdrawCount") long withdrawCount,
+            @Param("transferIn") double transferIn, @Param("transferInCount") long transferInCount,
+            @Param("transferOut") double transferOut, @Param("transferOutCount") long transferOutCount,
+            @Param("billPayment") double billPayment, @Param("billPaymentCount") long billPaymentCount,
+            @Param("other") double other, @Param("otherCount") long otherCount,
+            @Param("at") LocalDateTime at);
+}
@@ -0,0 +1,10 @@
+package org.example.bankingsystem.repository;
+
+import org.example.bankingsystem.model.ActiveUserSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ActiveUserSketchRepository extends JpaRepository<ActiveUserSketch, LocalDate> {
+    List<ActiveUserSketch> findBySketchDateBetweenOrderBySketchDate(LocalDate from, LocalDate to);
+}
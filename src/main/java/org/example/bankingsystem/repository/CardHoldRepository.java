@@ -0,0 +1,12 @@
+package org.example.bankingsystem.repository;
+
+import org.example.bankingsystem.model.CardHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
+import java.util.Optional;
+
+public interface CardHoldRepository extends JpaRepository<CardHold, Long> {
+    Optional<CardHold> findByHoldId(String holdId);
+
+    List<CardHold> findByStatus(String status);
+}
@@ -0,0 +1,26 @@
+package org.example.bankingsystem.repository;
+
+import org.example.bankingsystem.model.DailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyRollupRepository extends JpaRepository<DailyRollup, LocalDate> {
+    List<DailyRollup> findByRollupDateBetweenOrderByRollupDate(LocalDate from, LocalDate to);
+
+    void deleteByRollupDateBetween(LocalDate from, LocalDate to);
+
+    // Atomic upsert of deltas for one day
+    @Modifying
+    @Query(value = "INSERT INTO daily_rollup (rollup_date, transaction_volume, transaction_count, new_accounts, "
+            + "card_requests) VALUES (:day, :volume, :txnCount, :newAccounts, :cardRequests) "
+            + "ON DUPLICATE KEY UPDATE transaction_volume = transaction_volume + VALUES(transaction_volume), "
+            + "transaction_count = transaction_count + VALUES(transaction_count), "
+            + "new_accounts = new_accounts + VALUES(new_accounts), "
+            + "card_requests = card_requests + VALUES(card_requests)", nativeQuery = true)
+    void add(@Param("day") LocalDate day, @Param("volume") double volume, @Param("txnCount") long txnCount,
+            @Param("newAccounts") long newAccounts, @Param("cardRequests") long cardRequests);
+}
@@ -13,4 +13,17 @@ public interface DebitCardRepository extends JpaRepository<DebitCard, Long> {
     Optional<DebitCard> findByCardNumber(String cardNumber);
 
     Optional<DebitCard> findByAccountNumberAndStatus(String accountNumber, String status);
+
+    // Admin card queue, oldest request first
+    org.springframework.data.domain.Page<DebitCard> findByStatusOrderByIssuedDateAscIdAsc(String status,
+            org.springframework.data.domain.Pageable pageable);
+
+    long countByStatus(String status);
+
+    @org.springframework.data.jpa.repository.Query("SELECT CAST(c.issuedDate AS LocalDate) AS bucketDate, " +
+            "COUNT(c) AS bucketCount FROM DebitCard c WHERE c.issuedDate >= :from AND c.issuedDate < :to " +
+            "GROUP BY CAST(c.issuedDate AS LocalDate)")
+    List<org.example.bankingsystem.repository.projection.DailyCount> countIssuedByDay(
+            @org.springframework.data.repository.query.Param("from") java.time.LocalDateTime from,
+            @org.springframework.data.repository.query.Param("to") java.time.LocalDateTime to);
 }
@@ -1,6 +1,8 @@
 package org.example.bankingsystem.repository;
 
 import org.example.bankingsystem.model.DeleteRequest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.List;
 import java.util.Optional;
@@ -8,6 +10,11 @@ import java.util.Optional;
 public interface DeleteRequestRepository extends JpaRepository<DeleteRequest, Long> {
     List<DeleteRequest> findByStatus(String status);
 
+    // Admin delete queue, oldest request first
+    Page<DeleteRequest> findByStatusOrderByCreatedAtAscIdAsc(String status, Pageable pageable);
+
+    long countByStatus(String status);
+
     Optional<DeleteRequest> findByAccountNumberAndStatus(String accountNumber, String status);
 
     void deleteByAccountNumber(String accountNumber);
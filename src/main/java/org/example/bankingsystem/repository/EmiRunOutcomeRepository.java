@@ -0,0 +1,14 @@
+package org.example.bankingsystem.repository;
+
+import org.example.bankingsystem.model.EmiRunOutcome;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface EmiRunOutcomeRepository extends JpaRepository<EmiRunOutcome, Long> {
+    boolean existsByRunIdAndLoanId(Long runId, Long loanId);
+
+    Page<EmiRunOutcome> findByRunIdOrderByIdAsc(Long runId, Pageable pageable);
+
+    Page<EmiRunOutcome> findByRunIdAndStatusOrderByIdAsc(Long runId, String status, Pageable pageable);
+}
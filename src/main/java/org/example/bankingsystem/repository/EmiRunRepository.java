@@ -0,0 +1,15 @@
+package org.example.bankingsystem.repository;
+
+import org.example.bankingsystem.model.EmiRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface EmiRunRepository extends JpaRepository<EmiRun, Long> {
+    Optional<EmiRun> findByRunDate(LocalDate runDate);
+
+    List<EmiRun> findByStatus(String status);
+
+    List<EmiRun> findTop30ByOrderByRunDateDesc();
+}
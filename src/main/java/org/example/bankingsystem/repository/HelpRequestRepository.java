@@ -1,9 +1,18 @@
 package org.example.bankingsystem.repository;
 
 import org.example.bankingsystem.model.HelpRequest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.List;
 
 public interface HelpRequestRepository extends JpaRepository<HelpRequest, Long> {
     List<HelpRequest> findByAccountNumber(String accountNumber);
+
+    // Admin help queue, newest first
+    Page<HelpRequest> findAllByOrderByCreatedAtDescIdDesc(Pageable pageable);
+
+    Page<HelpRequest> findByStatusOrderByCreatedAtDescIdDesc(String status, Pageable pageable);
+
+    long countByStatus(String status);
 }
@@ -0,0 +1,42 @@
+package org.example.bankingsystem.repository;
+
+import org.example.bankingsystem.model.LoanInstallment;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface LoanInstallmentRepository extends JpaRepository<LoanInstallment, Long> {
+    List<LoanInstallment> findByLoanIdOrderByInstallmentNo(Long loanId);
+
+    boolean existsByLoanId(Long loanId);
+
+    Optional<LoanInstallment> findFirstByLoanIdAndStatusOrderByInstallmentNo(Long loanId, String status);
+
+    // Unpaid installments falling due in [from, to], from idx_loan_installment_status_due
+    Page<LoanInstallment> findByStatusAndDueDateBetweenOrderByDueDateAscLoanIdAsc(String status, LocalDate from,
+            LocalDate to, Pageable pageable);
+
+    @Query("SELECT COALESCE(SUM(i.principal), 0) FROM LoanInstallment i WHERE i.loanId = :loanId AND i.status = 'DUE'")
+    double sumOutstandingPrincipal(@Param("loanId") Long loanId);
+
+    @Query("SELECT COALESCE(SUM(i.principal), 0) FROM LoanInstallment i WHERE i.status = 'DUE'")
+    double sumOutstandingPrincipal();
+
+    @Query("SELECT COALESCE(SUM(i.amount), 0) FROM LoanInstallment i WHERE i.status = 'DUE' "
+            + "AND i.dueDate BETWEEN :from AND :to")
+    double sumDueBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Returns 0 if the installment is already paid (or the loan predates schedules)
+    @Modifying
+    @Query("UPDATE LoanInstallment i SET i.status = 'PAID', i.paidAt = :paidAt "
+            + "WHERE i.loanId = :loanId AND i.installmentNo = :installmentNo AND i.status = 'DUE'")
+    int markPaid(@Param("loanId") Long loanId, @Param("installmentNo") int installmentNo,
+            @Param("paidAt") LocalDateTime paidAt);
+}
@@ -12,7 +12,30 @@ public interface LoanRepository extends JpaRepository<Loan, Long> {
 
     Optional<Loan> findByLoanId(String loanId);
 
+    // Reads the loan with its row locked, so EMI debits of one loan (run, manual payment, retry) take turns
+    @org.springframework.data.jpa.repository.Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+    @org.springframework.data.jpa.repository.Query("SELECT l FROM Loan l WHERE l.id = :id")
+    Optional<Loan> findForUpdate(@org.springframework.data.repository.query.Param("id") Long id);
+
     List<Loan> findByAccountNumberAndStatus(String accountNumber, String status);
 
     List<Loan> findByStatus(String status);
+
+    // Admin loan queue, oldest application first
+    org.springframework.data.domain.Page<Loan> findByStatusOrderByCreatedAtAscIdAsc(String status,
+            org.springframework.data.domain.Pageable pageable);
+
+    long countByStatus(String status);
+
+    // Next keyset chunk of loans in `status` due on or before `dueBy`, by id (EMI runs)
+    List<Loan> findByStatusAndNextDueDateLessThanEqualAndIdGreaterThanOrderByIdAsc(String status,
+            java.time.LocalDate dueBy, Long afterId, org.springframework.data.domain.Pageable pageable);
+
+    // Portfolio totals rebuilt by LoanPortfolioService; outstanding must agree with LoanChangedEvent.State
+    @org.springframework.data.jpa.repository.Query("SELECT l.status AS status, l.rateOfInterest AS rate, "
+            + "l.nextDueDate AS dueDate, COUNT(l) AS loanCount, SUM(l.loanAmount) AS principal, "
+            + "SUM(CASE WHEN l.status = 'ACTIVE' AND l.durationMonths > 0 "
+            + "THEN l.loanAmount * (l.durationMonths - l.monthsPaid) / l.durationMonths ELSE 0 END) AS outstanding "
+            + "FROM Loan l GROUP BY l.status, l.rateOfInterest, l.nextDueDate")
+    List<org.example.bankingsystem.repository.projection.LoanPortfolioTotal> portfolioTotals();
 }
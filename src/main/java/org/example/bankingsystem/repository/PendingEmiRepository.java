@@ -0,0 +1,30 @@
+package org.example.bankingsystem.repository;
+
+import org.example.bankingsystem.model.PendingEmi;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface PendingEmiRepository extends JpaRepository<PendingEmi, Long> {
+    Optional<PendingEmi> findByLoanIdAndInstallmentNo(Long loanId, int installmentNo);
+
+    List<PendingEmi> findByAccountNumberAndStatusInOrderByLoanIdAscInstallmentNoAsc(String accountNumber,
+            Collection<String> statuses);
+
+    boolean existsByAccountNumberAndStatusIn(String accountNumber, Collection<String> statuses);
+
+    @Query("SELECT p.loanId FROM PendingEmi p WHERE p.id = :id")
+    Optional<Long> findLoanIdById(@Param("id") Long id);
+
+    Page<PendingEmi> findByStatusOrderByIdDesc(String status, Pageable pageable);
+
+    Page<PendingEmi> findAllByOrderByIdDesc(Pageable pageable);
+
+    @Query("SELECT DISTINCT p.accountNumber FROM PendingEmi p WHERE p.status IN ('PENDING', 'FEE_DUE')")
+    List<String> findAccountNumbersWithPending();
+}
@@ -0,0 +1,119 @@
+package org.example.bankingsystem.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plain JDBC queries that hand rows to a callback one at a time instead of
+ * materialising entities, used for exports that can be arbitrarily large.
+ */
+@Repository
+public class StreamingQueryRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows one by one; a positive value
+    // only takes effect with useCursorFetch=true on the JDBC url
+    @Value("${bank.export.fetch-size:" + Integer.MIN_VALUE + "}")
+    private int fetchSize;
+
+    // Transactions of one account, newest first, optionally limited to [from, to)
+    public void streamTransactions(String accountNumber, LocalDateTime from, LocalDateTime to,
+            RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, account_number, type, amount, balance_after, date, transaction_id, description "
+                        + "FROM `transaction` WHERE account_number = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(accountNumber);
+        appendRange(sql, args, "date", from, to);
+        sql.append(" ORDER BY date DESC, id DESC");
+        stream(sql.toString(), args, handler);
+    }
+
+    // Slim (id, account, type, amount, date) rows of every transaction with id > afterId, in id order
+    public void streamTransactionColumns(long afterId, RowCallbackHandler handler) {
+        List<Object> args = new ArrayList<>();
+        args.add(afterId);
+        stream("SELECT id, account_number, type, amount, date FROM `transaction` WHERE id > ? ORDER BY id", args,
+                handler);
+    }
+
+    // (id, transaction_id, account_number) of every transaction, in id order (search index build)
+    public void streamTransactionSearchKeys(RowCallbackHandler handler) {
+        stream("SELECT id, transaction_id, account_number FROM `transaction` ORDER BY id", new ArrayList<>(), handler);
+    }
+
+    // (account_number, name) of every account
+    public void streamAccountNames(RowCallbackHandler handler) {
+        stream("SELECT account_number, name FROM account", new ArrayList<>(), handler);
+    }
+
+    // All transactions in id order, optionally limited to [from, to) and one type (admin export)
+    public void streamAllTransactions(LocalDateTime from, LocalDateTime to, String type, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, transaction_id, account_number, type, amount, balance_after, date, description "
+                        + "FROM `transaction` WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        appendRange(sql, args, "date", from, to);
+        if (type != null) {
+            sql.append(" AND type = ?");
+            args.add(type);
+        }
+        sql.append(" ORDER BY id");
+        stream(sql.toString(), args, handler);
+    }
+
+    // Accounts without their pin, optionally created in [from, to) and in one status
+    // (ACTIVE, INACTIVE or FROZEN), in account number order (admin export)
+    public void streamAccounts(LocalDateTime from, LocalDateTime to, String status, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT account_number, name, email, mobile_number, balance, frozen, active, credit_score, "
+                        + "daily_expense_limit, created_date FROM account WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        appendRange(sql, args, "created_date", from, to);
+        if (status != null) {
+            switch (status) {
+                case "ACTIVE" -> sql.append(" AND active = TRUE AND frozen = FALSE");
+                case "INACTIVE" -> sql.append(" AND active = FALSE");
+                case "FROZEN" -> sql.append(" AND frozen = TRUE");
+                default -> throw new IllegalArgumentException("Unknown account status: " + status);
+            }
+        }
+        sql.append(" ORDER BY account_number");
+        stream(sql.toString(), args, handler);
+    }
+
+    private void appendRange(StringBuilder sql, List<Object> args, String column, LocalDateTime from,
+            LocalDateTime to) {
+        if (from != null) {
+            sql.append(" AND ").append(column).append(" >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND ").append(column).append(" < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+    }
+
+    private void stream(String sql, List<Object> args, RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, handler);
+    }
+}
@@ -7,6 +7,19 @@ import java.util.List;
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
         List<Transaction> findByAccountNumberOrderByDateDesc(String accountNumber);
 
+        // Keyset pagination on (date, id), served by idx_transaction_account_date_id
+        List<Transaction> findByAccountNumberOrderByDateDescIdDesc(String accountNumber,
+                        org.springframework.data.domain.Pageable pageable);
+
+        @org.springframework.data.jpa.repository.Query("SELECT t FROM Transaction t WHERE t.accountNumber = :accountNumber AND "
+                        +
+                        "(t.date < :date OR (t.date = :date AND t.id < :id)) ORDER BY t.date DESC, t.id DESC")
+        List<Transaction> findStatementPageAfter(
+                        @org.springframework.data.repository.query.Param("accountNumber") String accountNumber,
+                        @org.springframework.data.repository.query.Param("date") java.time.LocalDateTime date,
+                        @org.springframework.data.repository.query.Param("id") Long id,
+                        org.springframework.data.domain.Pageable pageable);
+
         @org.springframework.data.jpa.repository.Query("SELECT t FROM Transaction t WHERE " +
                         "LOWER(t.transactionId) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
                         "LOWER(t.accountNumber) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
@@ -16,4 +29,48 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
 
         List<Transaction> findByAccountNumberAndDateBetween(String accountNumber, java.time.LocalDateTime start,
                         java.time.LocalDateTime end);
+
+        // Per-day, per-type totals computed by the database for [from, to)
+        @org.springframework.data.jpa.repository.Query("SELECT CAST(t.date AS LocalDate) AS txnDay, t.type AS txnType, "
+                        +
+                        "SUM(t.amount) AS total, COUNT(t) AS txnCount FROM Transaction t " +
+                        "WHERE t.accountNumber = :accountNumber AND t.date >= :from AND t.date < :to " +
+                        "GROUP BY CAST(t.date AS LocalDate), t.type ORDER BY CAST(t.date AS LocalDate)")
+        List<org.example.bankingsystem.repository.projection.DailyTypeTotal> sumByDayAndType(
+                        @org.springframework.data.repository.query.Param("accountNumber") String accountNumber,
+                        @org.springframework.data.repository.query.Param("from") java.time.LocalDateTime from,
+                        @org.springframework.data.repository.query.Param("to") java.time.LocalDateTime to);
+
+        // Lifetime per-type totals of one account (statistics backfill)
+        @org.springframework.data.jpa.repository.Query("SELECT t.type AS txnType, SUM(t.amount) AS total, " +
+                        "COUNT(t) AS txnCount, MAX(t.date) AS lastDate FROM Transaction t " +
+                        "WHERE t.accountNumber = :accountNumber GROUP BY t.type")
+        List<org.example.bankingsystem.repository.projection.TypeTotal> sumByType(
+                        @org.springframework.data.repository.query.Param("accountNumber") String accountNumber);
+
+        @org.springframework.data.jpa.repository.Query("SELECT DISTINCT t.accountNumber FROM Transaction t")
+        List<String> findDistinctAccountNumbers();
+
+        // Bank-wide per-day volume and count for [from, to) (rollup rebuild)
+        @org.springframework.data.jpa.repository.Query("SELECT CAST(t.date AS LocalDate) AS bucketDate, " +
+                        "SUM(t.amount) AS total, COUNT(t) AS bucketCount FROM Transaction t " +
+                        "WHERE t.date >= :from AND t.date < :to GROUP BY CAST(t.date AS LocalDate)")
+        List<org.example.bankingsystem.repository.projection.DailyTotal> sumByDay(
+                        @org.springframework.data.repository.query.Param("from") java.time.LocalDateTime from,
+                        @org.springframework.data.repository.query.Param("to") java.time.LocalDateTime to);
+
+        // Bank-wide per-day, per-type totals for [from, to) (one chunk of a volume report)
+        @org.springframework.data.jpa.repository.Query("SELECT CAST(t.date AS LocalDate) AS txnDay, t.type AS txnType, " +
+                        "SUM(t.amount) AS total, COUNT(t) AS txnCount FROM Transaction t " +
+                        "WHERE t.date >= :from AND t.date < :to GROUP BY CAST(t.date AS LocalDate), t.type")
+        List<org.example.bankingsystem.repository.projection.DailyTypeTotal> sumByDayAndTypeBetween(
+                        @org.springframework.data.repository.query.Param("from") java.time.LocalDateTime from,
+                        @org.springframework.data.repository.query.Param("to") java.time.LocalDateTime to);
+
+        // Admin transaction list, newest first, keyset-paginated on the primary key
+        List<org.example.bankingsystem.repository.projection.TransactionSummary> findAllByOrderByIdDesc(
+                        org.springframework.data.domain.Pageable pageable);
+
+        List<org.example.bankingsystem.repository.projection.TransactionSummary> findByIdLessThanOrderByIdDesc(Long id,
+                        org.springframework.data.domain.Pageable pageable);
 }
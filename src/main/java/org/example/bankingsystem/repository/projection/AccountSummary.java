@@ -0,0 +1,24 @@
+package org.example.bankingsystem.repository.projection;
+
+import java.time.LocalDateTime;
+
+// Columns shown in the admin account list (no pin, address or nominee details)
+public interface AccountSummary {
+    String getAccountNumber();
+
+    String getName();
+
+    String getEmail();
+
+    String getMobileNumber();
+
+    double getBalance();
+
+    boolean isFrozen();
+
+    boolean isActive();
+
+    int getCreditScore();
+
+    LocalDateTime getCreatedDate();
+}
@@ -0,0 +1,10 @@
+package org.example.bankingsystem.repository.projection;
+
+import java.time.LocalDate;
+
+// One GROUP BY day row: count only
+public interface DailyCount {
+    LocalDate getBucketDate();
+
+    Long getBucketCount();
+}
@@ -0,0 +1,12 @@
+package org.example.bankingsystem.repository.projection;
+
+import java.time.LocalDate;
+
+// One GROUP BY day row: sum and count
+public interface DailyTotal {
+    LocalDate getBucketDate();
+
+    Double getTotal();
+
+    Long getBucketCount();
+}
@@ -0,0 +1,14 @@
+package org.example.bankingsystem.repository.projection;
+
+import java.time.LocalDate;
+
+// One GROUP BY (day, type) row of transaction totals
+public interface DailyTypeTotal {
+    LocalDate getTxnDay();
+
+    String getTxnType();
+
+    Double getTotal();
+
+    Long getTxnCount();
+}
@@ -0,0 +1,18 @@
+package org.example.bankingsystem.repository.projection;
+
+import java.time.LocalDate;
+
+// One GROUP BY (status, rate, next due date) row of loan totals
+public interface LoanPortfolioTotal {
+    String getStatus();
+
+    Double getRate();
+
+    LocalDate getDueDate();
+
+    Long getLoanCount();
+
+    Double getPrincipal();
+
+    Double getOutstanding();
+}
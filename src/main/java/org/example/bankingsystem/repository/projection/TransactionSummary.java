@@ -0,0 +1,20 @@
+package org.example.bankingsystem.repository.projection;
+
+import java.time.LocalDateTime;
+
+// Columns shown in the admin transaction list
+public interface TransactionSummary {
+    Long getId();
+
+    String getTransactionId();
+
+    String getAccountNumber();
+
+    String getType();
+
+    double getAmount();
+
+    double getBalanceAfter();
+
+    LocalDateTime getDate();
+}
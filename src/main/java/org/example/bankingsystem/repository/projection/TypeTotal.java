@@ -0,0 +1,14 @@
+package org.example.bankingsystem.repository.projection;
+
+import java.time.LocalDateTime;
+
+// One GROUP BY type row of transaction totals
+public interface TypeTotal {
+    String getTxnType();
+
+    Double getTotal();
+
+    Long getTxnCount();
+
+    LocalDateTime getLastDate();
+}
@@ -3,14 +3,22 @@ package org.example.bankingsystem.service;
 import org.example.bankingsystem.model.Account;
 import org.example.bankingsystem.model.Transaction;
 import org.example.bankingsystem.repository.AccountRepository;
+import org.example.bankingsystem.repository.StreamingQueryRepository;
 import org.example.bankingsystem.repository.TransactionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
 
 import java.util.List;
 import java.util.Optional;
@@ -21,6 +29,12 @@ import java.util.HashMap;
 public class AccountService {
 
     private static final double LOW_BALANCE_THRESHOLD = 1000.0;
+    private static final int MAX_STATEMENT_PAGE_SIZE = 100;
+    private static final int MAX_ADMIN_PAGE_SIZE = 200;
+    private static final int CSV_ERROR_CHECK_ROWS = 1000;
+    private static final int MAX_ANALYTICS_DAYS = 366;
+    private static final java.util.Set<String> ACCOUNT_SORT_FIELDS = java.util.Set.of("accountNumber", "name",
+            "email", "balance", "creditScore", "createdDate");
 
     @Autowired
     private AccountRepository accountRepo;
@@ -28,6 +42,27 @@ public class AccountService {
     @Autowired
     private TransactionRepository transactionRepo;
 
+    @Autowired
+    private StreamingQueryRepository streamingQueryRepo;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountStatisticsService accountStatisticsService;
+
+    @Autowired
+    private DailyRollupService dailyRollupService;
+
+    @Autowired
+    private TransactionSearchIndex transactionSearchIndex;
+
+    @Autowired
+    private AccountTypeaheadIndex accountTypeaheadIndex;
+
+    @Autowired
+    private CardAuthorizationService cardAuthorizationService;
+
     @Autowired
     private org.example.bankingsystem.repository.AdminMessageRepository adminMessageRepo;
 
@@ -41,26 +76,34 @@ public class AccountService {
     private AuthService authService;
 
     // Create account (if you already have, keep existing)
+    @Transactional
     public Account createAccount(Account account) {
         account.setBalance(0.0);
         Account saved = accountRepo.save(account);
+        dailyRollupService.recordNewAccount(saved.getCreatedDate());
+        // Searchable once the insert has committed
+        afterCommit(() -> {
+            transactionSearchIndex.putAccount(saved.getAccountNumber(), saved.getName());
+            accountTypeaheadIndex.put(saved.getAccountNumber(), saved.getName());
+        });
         // send welcome email
         emailService.sendAccountCreationEmail(saved.getEmail(), saved.getAccountNumber(), saved.getName());
         return saved;
     }
 
     // Deposit
+    @Transactional
     public String deposit(String accNo, double amount) {
         if (amount <= 0)
             return "Amount must be positive.";
-        Optional<Account> opt = accountRepo.findById(accNo);
+        Optional<Account> opt = accountRepo.findForUpdate(accNo);
         if (opt.isEmpty())
             return "Account not found.";
         Account acc = opt.get();
         acc.setBalance(acc.getBalance() + amount);
         accountRepo.save(acc);
         Transaction txn = new Transaction(accNo, "DEPOSIT", amount, acc.getBalance(), "Deposit");
-        transactionRepo.save(txn);
+        transactionService.post(txn);
         emailService.sendTransactionEmail(acc.getEmail(), accNo, "DEPOSIT", amount, acc.getBalance(),
                 txn.getTransactionId());
         return "Deposit successful. New balance: ₹" + acc.getBalance();
@@ -88,10 +131,11 @@ public class AccountService {
     }
 
     // Withdraw (requires PIN and OTP for amounts > ₹5000)
+    @Transactional
     public String withdraw(String accNo, String pin, double amount) {
         if (amount <= 0)
             return "Amount must be positive.";
-        Optional<Account> opt = accountRepo.findById(accNo);
+        Optional<Account> opt = accountRepo.findForUpdate(accNo);
         if (opt.isEmpty())
             return "Account not found.";
         Account acc = opt.get();
@@ -102,7 +146,7 @@ public class AccountService {
         if (limitError != null)
             return limitError;
 
-        if (acc.getBalance() < amount)
+        if (cardAuthorizationService.availableBalance(acc) < amount)
             return "Insufficient balance.";
 
         // If withdrawal amount > ₹5000, send OTP
@@ -116,7 +160,7 @@ public class AccountService {
         acc.setBalance(acc.getBalance() - amount);
         accountRepo.save(acc);
         Transaction txn = new Transaction(accNo, "WITHDRAW", amount, acc.getBalance(), "Withdrawal");
-        transactionRepo.save(txn);
+        transactionService.post(txn);
         emailService.sendTransactionEmail(acc.getEmail(), accNo, "WITHDRAW", amount, acc.getBalance(),
                 txn.getTransactionId());
 
@@ -136,13 +180,23 @@ public class AccountService {
     }
 
     // Transfer (requires sender PIN and OTP if amount > ₹5000)
+    @Transactional
     public String transfer(String senderAcc, String senderPin, String receiverAcc, double amount) {
         if (amount <= 0)
             return "Amount must be positive.";
         if (senderAcc.equals(receiverAcc))
             return "Sender and receiver cannot be same.";
-        Optional<Account> sOpt = accountRepo.findById(senderAcc);
-        Optional<Account> rOpt = accountRepo.findById(receiverAcc);
+        // Lock both rows in account-number order, so opposite transfers between two accounts
+        // cannot each hold one lock while waiting for the other
+        Optional<Account> sOpt;
+        Optional<Account> rOpt;
+        if (senderAcc.compareTo(receiverAcc) < 0) {
+            sOpt = accountRepo.findForUpdate(senderAcc);
+            rOpt = accountRepo.findForUpdate(receiverAcc);
+        } else {
+            rOpt = accountRepo.findForUpdate(receiverAcc);
+            sOpt = accountRepo.findForUpdate(senderAcc);
+        }
         if (sOpt.isEmpty())
             return "Sender account not found.";
         if (rOpt.isEmpty())
@@ -156,7 +210,7 @@ public class AccountService {
         if (limitError != null)
             return limitError;
 
-        if (sender.getBalance() < amount)
+        if (cardAuthorizationService.availableBalance(sender) < amount)
             return "Sender has insufficient funds.";
 
         // If transfer amount > ₹5000, send OTP
@@ -177,8 +231,8 @@ public class AccountService {
                 "Transfer to " + receiverAcc);
         Transaction txnReceiver = new Transaction(receiverAcc, "TRANSFER_IN", amount, receiver.getBalance(),
                 "Transfer from " + senderAcc);
-        transactionRepo.save(txnSender);
-        transactionRepo.save(txnReceiver);
+        transactionService.post(txnSender);
+        transactionService.post(txnReceiver);
 
         // emails with transaction IDs
         emailService.sendEmail(sender.getEmail(), "Transfer Sent",
@@ -202,6 +256,7 @@ public class AccountService {
     }
 
     // Pay Bill (Mobile, DTH, Electricity, Insurance)
+    @Transactional
     public Map<String, Object> payBill(String accNo, String billType, double amount, String provider,
             String consumerDetails) {
         Map<String, Object> response = new HashMap<>();
@@ -211,7 +266,7 @@ public class AccountService {
             return response;
         }
 
-        Optional<Account> opt = accountRepo.findById(accNo);
+        Optional<Account> opt = accountRepo.findForUpdate(accNo);
         if (opt.isEmpty()) {
             response.put("success", false);
             response.put("message", "Account not found.");
@@ -226,7 +281,7 @@ public class AccountService {
             return response;
         }
 
-        if (acc.getBalance() < amount) {
+        if (cardAuthorizationService.availableBalance(acc) < amount) {
             response.put("success", false);
             response.put("message", "Insufficient balance.");
             return response;
@@ -239,7 +294,7 @@ public class AccountService {
         // Create Transaction
         String description = billType + " Payment: " + provider + " (" + consumerDetails + ")";
         Transaction txn = new Transaction(accNo, "BILL_PAYMENT", amount, acc.getBalance(), description);
-        transactionRepo.save(txn);
+        transactionService.post(txn);
 
         // Send Email
         emailService.sendTransactionEmail(acc.getEmail(), accNo, "BILL_PAYMENT", amount, acc.getBalance(),
@@ -257,18 +312,70 @@ public class AccountService {
         return transactionRepo.findByAccountNumberOrderByDateDesc(accNo);
     }
 
-    // CSV export as bytes (now includes transaction ID)
-    public ByteArrayInputStream exportTransactionsToCsv(String accNo) {
-        List<Transaction> txns = getMiniStatement(accNo);
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        PrintWriter pw = new PrintWriter(baos);
+    // Statement page of `size` rows (newest first) after the given cursor. The cursor is the
+    // "<date>_<id>" of the last row of the previous page, so each page is an index range scan.
+    public Map<String, Object> getStatementPage(String accNo, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_STATEMENT_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        org.springframework.data.domain.Pageable page = org.springframework.data.domain.PageRequest.of(0, limit + 1);
+        List<Transaction> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = transactionRepo.findByAccountNumberOrderByDateDescIdDesc(accNo, page);
+        } else {
+            int sep = cursor.lastIndexOf('_');
+            if (sep <= 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            LocalDateTime date;
+            Long id;
+            try {
+                date = LocalDateTime.parse(cursor.substring(0, sep));
+                id = Long.valueOf(cursor.substring(sep + 1));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            rows = transactionRepo.findStatementPageAfter(accNo, date, id, page);
+        }
+
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("transactions", rows);
+        response.put("hasMore", hasMore);
+        if (hasMore) {
+            Transaction last = rows.get(rows.size() - 1);
+            response.put("nextCursor", last.getDate() + "_" + last.getId());
+        }
+        return response;
+    }
+
+    // CSV export (includes transaction ID), streamed row by row from a DB cursor so memory
+    // stays flat regardless of history size. from/to are optional, to is exclusive.
+    public void exportTransactionsToCsv(String accNo, LocalDateTime from, LocalDateTime to, boolean gzip,
+            OutputStream out) throws IOException {
+        GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(out, 8192) : null;
+        PrintWriter pw = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(gzip ? gzipOut : out, StandardCharsets.UTF_8), 8192));
         pw.println("date,type,amount,balance_after,transaction_id");
-        for (Transaction t : txns) {
-            pw.printf("%s,%s,%.2f,%.2f,%s%n", t.getDate().toString(), t.getType(), t.getAmount(), t.getBalanceAfter(),
-                    t.getTransactionId());
+        int[] written = { 0 };
+        streamingQueryRepo.streamTransactions(accNo, from, to, rs -> {
+            pw.printf("%s,%s,%.2f,%.2f,%s%n", rs.getTimestamp("date").toLocalDateTime().toString(),
+                    rs.getString("type"), rs.getDouble("amount"), rs.getDouble("balance_after"),
+                    rs.getString("transaction_id"));
+            // PrintWriter swallows IO errors; stop reading the cursor once the client is gone.
+            // checkError() flushes, so it is only called every CSV_ERROR_CHECK_ROWS rows.
+            if (++written[0] % CSV_ERROR_CHECK_ROWS == 0 && pw.checkError()) {
+                throw new java.sql.SQLException("Client aborted statement download");
+            }
+        });
+        if (pw.checkError()) {
+            throw new IOException("Client aborted statement download");
+        }
+        if (gzipOut != null) {
+            gzipOut.finish();
         }
-        pw.flush();
-        return new ByteArrayInputStream(baos.toByteArray());
     }
 
     // Delete account (requires PIN)
@@ -299,7 +406,7 @@ public class AccountService {
         return response;
     }
 
-    // Get user statistics
+    // Get user statistics (from the incrementally maintained account_statistics row)
     public java.util.Map<String, Object> getUserStatistics(String accNo) {
         Optional<Account> opt = accountRepo.findById(accNo);
         java.util.Map<String, Object> response = new java.util.HashMap<>();
@@ -311,37 +418,20 @@ public class AccountService {
         }
 
         Account acc = opt.get();
-        List<Transaction> transactions = getMiniStatement(accNo);
-
-        double totalDeposits = transactions.stream()
-                .filter(t -> t.getType().equals("DEPOSIT"))
-                .mapToDouble(Transaction::getAmount)
-                .sum();
-
-        double totalWithdrawals = transactions.stream()
-                .filter(t -> t.getType().equals("WITHDRAW"))
-                .mapToDouble(Transaction::getAmount)
-                .sum();
-
-        double totalTransfersOut = transactions.stream()
-                .filter(t -> t.getType().equals("TRANSFER_OUT"))
-                .mapToDouble(Transaction::getAmount)
-                .sum();
-
-        double totalTransfersIn = transactions.stream()
-                .filter(t -> t.getType().equals("TRANSFER_IN"))
-                .mapToDouble(Transaction::getAmount)
-                .sum();
+        org.example.bankingsystem.model.AccountStatistics stats = accountStatisticsService.getStatistics(accNo)
+                .orElseGet(() -> new org.example.bankingsystem.model.AccountStatistics(accNo));
 
         response.put("success", true);
         response.put("accountNumber", acc.getAccountNumber());
         response.put("name", acc.getName());
         response.put("currentBalance", acc.getBalance());
-        response.put("totalDeposits", totalDeposits);
-        response.put("totalWithdrawals", totalWithdrawals);
-        response.put("totalTransfersOut", totalTransfersOut);
-        response.put("totalTransfersIn", totalTransfersIn);
-        response.put("totalTransactions", transactions.size());
+        response.put("totalDeposits", stats.getDepositTotal());
+        response.put("totalWithdrawals", stats.getWithdrawTotal());
+        response.put("totalTransfersOut", stats.getTransferOutTotal());
+        response.put("totalTransfersIn", stats.getTransferInTotal());
+        response.put("totalBillPayments", stats.getBillPaymentTotal());
+        response.put("totalTransactions", stats.getTotalCount());
+        response.put("lastActivity", stats.getLastActivity());
 
         return response;
     }
@@ -407,21 +497,74 @@ public class AccountService {
     }
 
     public long countActiveUsers() {
-        return accountRepo.findAll().stream().filter(a -> a.getBalance() > 0.0).count();
+        return accountRepo.countWithPositiveBalance();
     }
 
     public double sumBalances() {
-        return accountRepo.findAll().stream().mapToDouble(a -> a.getBalance()).sum();
-    }
-
-    public java.util.List<Account> getAllAccounts() {
-        return accountRepo.findAll();
+        return accountRepo.sumBalances();
     }
 
     public java.util.List<Transaction> getAllTransactions() {
         return transactionRepo.findAll();
     }
 
+    // Admin account list page; sort is "<field>[,asc|desc]" over the summary columns
+    public Map<String, Object> getAccountsPage(int page, int size, String sort) {
+        int limit = Math.max(1, Math.min(size, MAX_ADMIN_PAGE_SIZE));
+        org.springframework.data.domain.Sort order = org.springframework.data.domain.Sort.by("accountNumber");
+        if (sort != null && !sort.isBlank()) {
+            String[] parts = sort.split(",");
+            String field = parts[0].trim();
+            if (!ACCOUNT_SORT_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Cannot sort by " + field);
+            }
+            boolean desc = parts.length > 1 && "desc".equalsIgnoreCase(parts[1].trim());
+            order = org.springframework.data.domain.Sort.by(
+                    desc ? org.springframework.data.domain.Sort.Direction.DESC
+                            : org.springframework.data.domain.Sort.Direction.ASC,
+                    field).and(org.springframework.data.domain.Sort.by("accountNumber"));
+        }
+        org.springframework.data.domain.Page<org.example.bankingsystem.repository.projection.AccountSummary> result = accountRepo
+                .findAllProjectedBy(org.springframework.data.domain.PageRequest.of(Math.max(0, page), limit, order));
+        Map<String, Object> response = new HashMap<>();
+        response.put("accounts", result.getContent());
+        response.put("page", result.getNumber());
+        response.put("size", limit);
+        response.put("totalElements", result.getTotalElements());
+        response.put("totalPages", result.getTotalPages());
+        return response;
+    }
+
+    // Admin transaction list, newest first. The cursor is the id of the last row of the previous page.
+    public Map<String, Object> getTransactionsPage(String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_ADMIN_PAGE_SIZE));
+        org.springframework.data.domain.Pageable page = org.springframework.data.domain.PageRequest.of(0, limit + 1);
+        List<org.example.bankingsystem.repository.projection.TransactionSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = transactionRepo.findAllByOrderByIdDesc(page);
+        } else {
+            long afterId;
+            try {
+                afterId = Long.parseLong(cursor.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            rows = transactionRepo.findByIdLessThanOrderByIdDesc(afterId, page);
+        }
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("transactions", rows);
+        response.put("size", limit);
+        response.put("hasMore", hasMore);
+        if (hasMore) {
+            response.put("nextCursor", String.valueOf(rows.get(rows.size() - 1).getId()));
+        }
+        return response;
+    }
+
     public List<Transaction> searchTransactions(String query) {
         if (query == null || query.trim().isEmpty()) {
             return getAllTransactions();
@@ -444,6 +587,60 @@ public class AccountService {
         return transactionRepo.searchTransactions(searchTerm, safeAccountNumbers);
     }
 
+    // Admin search, one page at a time (newest first). Served from the trigram index when it
+    // is built and the query is long enough; otherwise falls back to the LIKE queries above.
+    public Map<String, Object> searchTransactionsPage(String query, int page, int size) {
+        String searchTerm = query.trim();
+        int limit = Math.max(1, Math.min(size, MAX_STATEMENT_PAGE_SIZE));
+        int offset = Math.max(0, page) * limit;
+        Map<String, Object> response = new HashMap<>();
+        response.put("page", Math.max(0, page));
+        response.put("size", limit);
+
+        if (!transactionSearchIndex.isReady() || searchTerm.length() < TransactionSearchIndex.MIN_QUERY_LENGTH) {
+            List<Transaction> all = new java.util.ArrayList<>(searchTransactions(searchTerm));
+            all.sort(java.util.Comparator.comparing(Transaction::getId, java.util.Comparator.reverseOrder()));
+            response.put("transactions", all.subList(Math.min(offset, all.size()), Math.min(offset + limit, all.size())));
+            response.put("total", all.size());
+            response.put("hasMore", offset + limit < all.size());
+            response.put("source", "database");
+            return response;
+        }
+
+        // The index returns verified matches, so the page is fetched by primary key as is
+        long[] ids = transactionSearchIndex.search(searchTerm);
+        List<Long> pageIds = new java.util.ArrayList<>();
+        for (int i = offset; i < Math.min(offset + limit, ids.length); i++) {
+            pageIds.add(ids[i]);
+        }
+        List<Transaction> rows = new java.util.ArrayList<>(transactionRepo.findAllById(pageIds));
+        rows.sort(java.util.Comparator.comparing(Transaction::getId, java.util.Comparator.reverseOrder()));
+        response.put("transactions", rows);
+        response.put("total", ids.length);
+        response.put("hasMore", offset + limit < ids.length);
+        response.put("source", "index");
+        return response;
+    }
+
+    // Accounts whose number or holder name (or a word of it) starts with the query. Until the
+    // in-memory index is built this falls back to a name LIKE scan.
+    public List<Map<String, Object>> typeaheadAccounts(String query, int limit) {
+        if (accountTypeaheadIndex.isReady()) {
+            return accountTypeaheadIndex.lookup(query, limit);
+        }
+        List<Map<String, Object>> results = new java.util.ArrayList<>();
+        for (Account acc : accountRepo.findByNameContainingIgnoreCase(query.trim())) {
+            if (results.size() >= Math.min(limit, AccountTypeaheadIndex.MAX_RESULTS)) {
+                break;
+            }
+            Map<String, Object> row = new HashMap<>();
+            row.put("accountNumber", acc.getAccountNumber());
+            row.put("name", acc.getName());
+            results.add(row);
+        }
+        return results;
+    }
+
     // Freeze/deactivate account
     public boolean freezeAccount(String accountNumber) {
         java.util.Optional<Account> opt = accountRepo.findById(accountNumber);
@@ -499,6 +696,9 @@ public class AccountService {
     @Autowired
     private org.example.bankingsystem.repository.LoanRepository loanRepo;
 
+    @Autowired
+    private PendingCountService pendingCountService;
+
     // Delete account (Request initiated by User)
     // Initiate Delete Account (Check Loans & Send OTP)
     public String initiateDeleteAccount(String accNo) {
@@ -555,13 +755,23 @@ public class AccountService {
                 accNo);
         request.setReason(reason);
         deleteRequestRepo.save(request);
+        pendingCountService.invalidate();
 
         return "Delete request submitted. Your account will be deleted after admin approval.";
     }
 
-    // Admin: Get pending delete requests
-    public List<org.example.bankingsystem.model.DeleteRequest> getPendingDeleteRequests() {
-        return deleteRequestRepo.findByStatus("PENDING");
+    // Admin: One page of pending delete requests, oldest first
+    public Map<String, Object> getPendingDeleteRequests(int page, int size) {
+        org.springframework.data.domain.Page<org.example.bankingsystem.model.DeleteRequest> result = deleteRequestRepo
+                .findByStatusOrderByCreatedAtAscIdAsc("PENDING", org.springframework.data.domain.PageRequest
+                        .of(Math.max(0, page), Math.max(1, Math.min(size, MAX_ADMIN_PAGE_SIZE))));
+        Map<String, Object> response = new HashMap<>();
+        response.put("requests", result.getContent());
+        response.put("page", result.getNumber());
+        response.put("size", result.getSize());
+        response.put("totalElements", result.getTotalElements());
+        response.put("totalPages", result.getTotalPages());
+        return response;
     }
 
     // Admin: Approve delete request
@@ -576,6 +786,7 @@ public class AccountService {
 
         req.setStatus("APPROVED");
         deleteRequestRepo.save(req);
+        pendingCountService.invalidate();
 
         // Delete the actual account
         String accNo = req.getAccountNumber();
@@ -594,6 +805,7 @@ public class AccountService {
 
         req.setStatus("REJECTED");
         deleteRequestRepo.save(req);
+        pendingCountService.invalidate();
 
         // Notify user
         Optional<Account> optAcc = accountRepo.findById(req.getAccountNumber());
@@ -611,21 +823,26 @@ public class AccountService {
             return false;
         Account acc = opt.get();
         accountRepo.delete(acc);
+        afterCommit(() -> {
+            transactionSearchIndex.removeAccountName(accountNumber);
+            accountTypeaheadIndex.remove(accountNumber);
+        });
         emailService.sendEmail(acc.getEmail(), "Account Deleted",
                 "Your account has been deleted by admin.");
         return true;
     }
 
-    // Analytics: Get last 30 days stats
-    public Map<String, Object> getAnalyticsData(String accountNumber) {
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        // Use existing method which fetches all, then filter in Java (fallback for JPA
-        // issue)
-        List<Transaction> allTransactions = transactionRepo.findByAccountNumberOrderByDateDesc(accountNumber);
-
-        List<Transaction> transactions = allTransactions.stream()
-                .filter(t -> t.getDate().isAfter(thirtyDaysAgo))
-                .collect(java.util.stream.Collectors.toList());
+    // Analytics for an inclusive date range of at most MAX_ANALYTICS_DAYS days, aggregated by the database
+    public Map<String, Object> getAnalyticsData(String accountNumber, java.time.LocalDate from,
+            java.time.LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (java.time.temporal.ChronoUnit.DAYS.between(from, to) >= MAX_ANALYTICS_DAYS) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_ANALYTICS_DAYS + " days");
+        }
+        List<org.example.bankingsystem.repository.projection.DailyTypeTotal> rows = transactionRepo
+                .sumByDayAndType(accountNumber, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
 
         // Prepare aggregation
         Map<String, double[]> dailyMap = new java.util.TreeMap<>(); // Date -> [Income, Expense]
@@ -633,12 +850,12 @@ public class AccountService {
         double totalIncome = 0;
         double totalExpense = 0;
 
-        for (Transaction t : transactions) {
-            String dateKey = t.getDate().toLocalDate().toString();
+        for (org.example.bankingsystem.repository.projection.DailyTypeTotal row : rows) {
+            String dateKey = row.getTxnDay().toString();
             dailyMap.putIfAbsent(dateKey, new double[] { 0.0, 0.0 });
 
-            double amount = t.getAmount();
-            String type = t.getType(); // DEPOSIT, WITHDRAW, TRANSFER_OUT, TRANSFER_IN
+            double amount = row.getTotal() == null ? 0.0 : row.getTotal();
+            String type = row.getTxnType(); // DEPOSIT, WITHDRAW, TRANSFER_OUT, TRANSFER_IN
 
             if ("DEPOSIT".equalsIgnoreCase(type) || "TRANSFER_IN".equalsIgnoreCase(type)) {
                 dailyMap.get(dateKey)[0] += amount;
@@ -660,67 +877,54 @@ public class AccountService {
             dailyStats.add(day);
         }
 
+        // Raw (day, type) aggregates for clients that want their own breakdown
+        List<Map<String, Object>> byType = new java.util.ArrayList<>();
+        for (org.example.bankingsystem.repository.projection.DailyTypeTotal row : rows) {
+            Map<String, Object> r = new HashMap<>();
+            r.put("date", row.getTxnDay().toString());
+            r.put("type", row.getTxnType());
+            r.put("total", row.getTotal());
+            r.put("count", row.getTxnCount());
+            byType.add(r);
+        }
+
         Map<String, Object> response = new HashMap<>();
+        response.put("from", from.toString());
+        response.put("to", to.toString());
         response.put("dailyStats", dailyStats);
+        response.put("dailyTypeTotals", byType);
         response.put("totalIncome", totalIncome);
         response.put("totalExpense", totalExpense);
 
         return response;
     }
 
-    // Admin Analytics
+    // Admin Analytics (served from the daily_rollup table)
     public java.util.Map<String, Object> getAdminAnalytics() {
         java.util.Map<String, Object> stats = new java.util.HashMap<>();
+        java.util.List<org.example.bankingsystem.model.DailyRollup> days = dailyRollupService.getLastDays(30);
 
         // 1. Transaction Stats (Last 30 Days)
-        java.time.LocalDateTime thirtyDaysAgo = java.time.LocalDateTime.now().minusDays(30);
-        java.util.List<Transaction> recentTxns = transactionRepo.findAll().stream()
-                .filter(t -> t.getDate().isAfter(thirtyDaysAgo))
-                .collect(java.util.stream.Collectors.toList());
-
-        // Group by Date for Volume and Count
-        java.util.Map<java.time.LocalDate, Double> dailyVolume = recentTxns.stream()
-                .collect(java.util.stream.Collectors.groupingBy(
-                        t -> t.getDate().toLocalDate(),
-                        java.util.stream.Collectors.summingDouble(Transaction::getAmount)));
-
-        java.util.Map<java.time.LocalDate, Long> dailyCount = recentTxns.stream()
-                .collect(java.util.stream.Collectors.groupingBy(
-                        t -> t.getDate().toLocalDate(),
-                        java.util.stream.Collectors.counting()));
-
-        // Format for Chart (Transactions)
         java.util.List<java.util.Map<String, Object>> chartData = new java.util.ArrayList<>();
-        for (int i = 29; i >= 0; i--) {
-            java.time.LocalDate d = java.time.LocalDate.now().minusDays(i);
+        for (org.example.bankingsystem.model.DailyRollup d : days) {
             java.util.Map<String, Object> point = new java.util.HashMap<>();
-            point.put("date", d.toString());
-            point.put("amount", dailyVolume.getOrDefault(d, 0.0));
-            point.put("count", dailyCount.getOrDefault(d, 0L));
+            point.put("date", d.getRollupDate().toString());
+            point.put("amount", d.getTransactionVolume());
+            point.put("count", d.getTransactionCount());
             chartData.add(point);
         }
         stats.put("transactionTrends", chartData);
 
         // 2. User Stats
-        java.util.List<Account> allAccounts = accountRepo.findAll();
-        long active = allAccounts.stream().filter(Account::isActive).count();
-        long inactive = allAccounts.size() - active;
-        stats.put("activeUsers", active);
-        stats.put("inactiveUsers", inactive);
+        stats.put("activeUsers", accountRepo.countByActive(true));
+        stats.put("inactiveUsers", accountRepo.countByActive(false));
 
         // 3. New Users Trend
-        java.util.Map<java.time.LocalDate, Long> dailyNewUsers = allAccounts.stream()
-                .filter(a -> a.getCreatedDate() != null && a.getCreatedDate().isAfter(thirtyDaysAgo))
-                .collect(java.util.stream.Collectors.groupingBy(
-                        a -> a.getCreatedDate().toLocalDate(),
-                        java.util.stream.Collectors.counting()));
-
         java.util.List<java.util.Map<String, Object>> newUserTrend = new java.util.ArrayList<>();
-        for (int i = 29; i >= 0; i--) {
-            java.time.LocalDate d = java.time.LocalDate.now().minusDays(i);
+        for (org.example.bankingsystem.model.DailyRollup d : days) {
             java.util.Map<String, Object> point = new java.util.HashMap<>();
-            point.put("date", d.toString());
-            point.put("users", dailyNewUsers.getOrDefault(d, 0L));
+            point.put("date", d.getRollupDate().toString());
+            point.put("users", d.getNewAccounts());
             newUserTrend.add(point);
         }
         stats.put("newUserTrend", newUserTrend);
@@ -787,4 +991,18 @@ public class AccountService {
     public List<org.example.bankingsystem.model.AdminMessage> getMessageHistory() {
         return adminMessageRepo.findAllByOrderBySentAtDesc();
     }
+
+    // Runs an in-memory index update after the current transaction commits, or right away outside one
+    private void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
 }
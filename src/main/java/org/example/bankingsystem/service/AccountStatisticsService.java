@@ -0,0 +1,161 @@
+package org.example.bankingsystem.service;
+
+import org.example.bankingsystem.event.TransactionPostedEvent;
+import org.example.bankingsystem.model.AccountStatistics;
+import org.example.bankingsystem.model.Transaction;
+import org.example.bankingsystem.repository.AccountStatisticsRepository;
+import org.example.bankingsystem.repository.TransactionRepository;
+import org.example.bankingsystem.repository.projection.TypeTotal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps one account_statistics row per account up to date with every posting,
+ * so user statistics are a primary-key read instead of a scan of the history.
+ */
+@Service
+public class AccountStatisticsService {
+
+    private static final int DEPOSIT = 0;
+    private static final int WITHDRAW = 1;
+    private static final int TRANSFER_IN = 2;
+    private static final int TRANSFER_OUT = 3;
+    private static final int BILL_PAYMENT = 4;
+    private static final int OTHER = 5;
+
+    @Autowired
+    private AccountStatisticsRepository statisticsRepo;
+
+    @Autowired
+    private TransactionRepository transactionRepo;
+
+    private final AtomicBoolean backfillRunning = new AtomicBoolean(false);
+
+    public Optional<AccountStatistics> getStatistics(String accountNumber) {
+        return statisticsRepo.findById(accountNumber);
+    }
+
+    // Runs synchronously inside the posting's transaction, so the row commits with it
+    @EventListener
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        Transaction t = event.getTransaction();
+        double[] totals = new double[6];
+        long[] counts = new long[6];
+        int bucket = bucketOf(t.getType());
+        totals[bucket] = t.getAmount();
+        counts[bucket] = 1;
+        statisticsRepo.addPosting(t.getAccountNumber(),
+                totals[DEPOSIT], counts[DEPOSIT], totals[WITHDRAW], counts[WITHDRAW],
+                totals[TRANSFER_IN], counts[TRANSFER_IN], totals[TRANSFER_OUT], counts[TRANSFER_OUT],
+                totals[BILL_PAYMENT], counts[BILL_PAYMENT], totals[OTHER], counts[OTHER], t.getDate());
+    }
+
+    // One-off rebuild of every row from the transaction table, spread over `parallelism` threads.
+    // Meant to run once after deploying (or after repairing data) while postings are quiet,
+    // since a posting that lands mid-rebuild of its account can be overwritten.
+    public boolean startBackfill(int parallelism) {
+        if (!backfillRunning.compareAndSet(false, true)) {
+            return false;
+        }
+        new Thread(() -> {
+            long started = System.currentTimeMillis();
+            AtomicLong done = new AtomicLong();
+            ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, parallelism));
+            try {
+                for (String accountNumber : transactionRepo.findDistinctAccountNumbers()) {
+                    pool.submit(() -> {
+                        try {
+                            rebuild(accountNumber);
+                            done.incrementAndGet();
+                        } catch (Exception e) {
+                            System.out.println("❌ Statistics backfill failed for account: " + accountNumber);
+                        }
+                    });
+                }
+                pool.shutdown();
+                pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+                System.out.println("Statistics backfill finished: " + done.get() + " accounts in "
+                        + (System.currentTimeMillis() - started) + " ms");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                pool.shutdownNow();
+                backfillRunning.set(false);
+            }
+        }, "statistics-backfill").start();
+        return true;
+    }
+
+    public boolean isBackfillRunning() {
+        return backfillRunning.get();
+    }
+
+    private void rebuild(String accountNumber) {
+        List<TypeTotal> rows = transactionRepo.sumByType(accountNumber);
+        AccountStatistics stats = new AccountStatistics(accountNumber);
+        for (TypeTotal row : rows) {
+            double total = row.getTotal() == null ? 0.0 : row.getTotal();
+            long count = row.getTxnCount() == null ? 0L : row.getTxnCount();
+            switch (bucketOf(row.getTxnType())) {
+                case DEPOSIT -> {
+                    stats.setDepositTotal(stats.getDepositTotal() + total);
+                    stats.setDepositCount(stats.getDepositCount() + count);
+                }
+                case WITHDRAW -> {
+                    stats.setWithdrawTotal(stats.getWithdrawTotal() + total);
+                    stats.setWithdrawCount(stats.getWithdrawCount() + count);
+                }
+                case TRANSFER_IN -> {
+                    stats.setTransferInTotal(stats.getTransferInTotal() + total);
+                    stats.setTransferInCount(stats.getTransferInCount() + count);
+                }
+                case TRANSFER_OUT -> {
+                    stats.setTransferOutTotal(stats.getTransferOutTotal() + total);
+                    stats.setTransferOutCount(stats.getTransferOutCount() + count);
+                }
+                case BILL_PAYMENT -> {
+                    stats.setBillPaymentTotal(stats.getBillPaymentTotal() + total);
+                    stats.setBillPaymentCount(stats.getBillPaymentCount() + count);
+                }
+                default -> {
+                    stats.setOtherTotal(stats.getOtherTotal() + total);
+                    stats.setOtherCount(stats.getOtherCount() + count);
+                }
+            }
+            if (row.getLastDate() != null
+                    && (stats.getLastActivity() == null || row.getLastDate().isAfter(stats.getLastActivity()))) {
+                stats.setLastActivity(row.getLastDate());
+            }
+        }
+        statisticsRepo.save(stats);
+    }
+
+    private static int bucketOf(String type) {
+        if (type == null) {
+            return OTHER;
+        }
+        switch (type) {
+            case "DEPOSIT":
+                return DEPOSIT;
+            case "WITHDRAW":
+                return WITHDRAW;
+            case "TRANSFER_IN":
+                return TRANSFER_IN;
+            case "TRANSFER_OUT":
+                return TRANSFER_OUT;
+            case "BILL_PAYMENT":
+                return BILL_PAYMENT;
+            default:
+                return OTHER;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.bankingsystem.service;
+
+import org.example.bankingsystem.repository.StreamingQueryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Prefix index over account numbers and holder names for typeahead lookups, instead of
+ * a full-table name LIKE scan. Each account contributes sorted keys of the form
+ * "normalized prefix-searchable text \0 accountNumber": its number, its full name and every
+ * word of the name (so "kum" finds "Alice Kumar"). A lookup is a range scan of the skip list
+ * from the prefix, stopping after K distinct accounts.
+ */
+@Service
+public class AccountTypeaheadIndex {
+
+    private static final char SEPARATOR = '\0';
+    public static final int MAX_RESULTS = 50;
+
+    @Autowired
+    private StreamingQueryRepository streamingQueryRepo;
+
+    private final NavigableSet<String> keys = new ConcurrentSkipListSet<>();
+    private final Map<String, String> names = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        new Thread(() -> {
+            try {
+                long started = System.currentTimeMillis();
+                streamingQueryRepo.streamAccountNames(
+                        rs -> put(rs.getString("account_number"), rs.getString("name")));
+                ready = true;
+                System.out.println("Account typeahead index built: " + names.size() + " accounts in "
+                        + (System.currentTimeMillis() - started) + " ms");
+            } catch (Exception e) {
+                System.out.println("❌ Account typeahead index build failed: " + e.getMessage());
+            }
+        }, "typeahead-build").start();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void put(String accountNumber, String name) {
+        if (accountNumber == null) {
+            return;
+        }
+        String previous = names.put(accountNumber, name == null ? "" : name);
+        if (previous != null) {
+            removeKeys(accountNumber, previous);
+        }
+        for (String key : keysOf(accountNumber, name)) {
+            keys.add(key + SEPARATOR + accountNumber);
+        }
+    }
+
+    public void remove(String accountNumber) {
+        String previous = names.remove(accountNumber);
+        if (previous != null) {
+            removeKeys(accountNumber, previous);
+        }
+    }
+
+    private void removeKeys(String accountNumber, String name) {
+        for (String key : keysOf(accountNumber, name)) {
+            keys.remove(key + SEPARATOR + accountNumber);
+        }
+    }
+
+    /**
+     * Up to `limit` accounts whose number, name or a word of the name starts with the
+     * query (case and accents ignored), in key order.
+     */
+    public List<Map<String, Object>> lookup(String query, int limit) {
+        String prefix = normalize(query);
+        List<Map<String, Object>> results = new ArrayList<>();
+        if (prefix.isEmpty()) {
+            return results;
+        }
+        int max = Math.max(1, Math.min(limit, MAX_RESULTS));
+        Set<String> seen = new HashSet<>();
+        // Every key starting with the prefix sorts between prefix and prefix + Character.MAX_VALUE
+        for (String key : keys.subSet(prefix, true, prefix + Character.MAX_VALUE, false)) {
+            String accountNumber = key.substring(key.lastIndexOf(SEPARATOR) + 1);
+            if (seen.add(accountNumber)) {
+                Map<String, Object> row = new HashMap<>();
+                row.put("accountNumber", accountNumber);
+                row.put("name", names.get(accountNumber));
+                results.add(row);
+                if (results.size() == max) {
+                    break;
+                }
+            }
+        }
+        return results;
+    }
+
+    private static Set<String> keysOf(String accountNumber, String name) {
+        Set<String> result = new LinkedHashSet<>();
+        result.add(normalize(accountNumber));
+        String normalizedName = normalize(name);
+        if (!normalizedName.isEmpty()) {
+            result.add(normalizedName);
+            for (String word : normalizedName.split(" ")) {
+                if (!word.isEmpty()) {
+                    result.add(word);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Lower case, accents stripped, runs of non-alphanumerics collapsed to one space
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String s = Normalizer.normalize(value, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return s.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+}
@@ -0,0 +1,187 @@
+package org.example.bankingsystem.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.bankingsystem.event.TransactionPostedEvent;
+import org.example.bankingsystem.model.ActiveUserSketch;
+import org.example.bankingsystem.model.Transaction;
+import org.example.bankingsystem.repository.ActiveUserSketchRepository;
+import org.example.bankingsystem.util.HyperLogLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Distinct active accounts per day (DAU) and over the trailing 7 / 30 days (WAU / MAU),
+ * kept as HyperLogLog sketches instead of COUNT(DISTINCT) over transaction and login_history.
+ * Committed postings and successful logins update an in-memory sketch for their day; dirty
+ * days are merged into the active_user_sketch row periodically. Because merging is a
+ * register-wise max, in-memory and stored sketches can always be combined safely.
+ */
+@Service
+public class ActiveUserService {
+
+    private static final int MONTH_DAYS = 30;
+    private static final int WEEK_DAYS = 7;
+
+    @Autowired
+    private ActiveUserSketchRepository sketchRepo;
+
+    private final Map<LocalDate, DaySketches> live = new ConcurrentHashMap<>();
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        Transaction t = event.getTransaction();
+        LocalDate day = t.getDate() != null ? t.getDate().toLocalDate() : LocalDate.now();
+        live.computeIfAbsent(day, d -> new DaySketches()).offer(t.getAccountNumber(), false);
+    }
+
+    public void recordLogin(String accountNumber) {
+        live.computeIfAbsent(LocalDate.now(), d -> new DaySketches()).offer(accountNumber, true);
+    }
+
+    // Merge dirty in-memory days into their stored rows and forget days that can no longer change
+    @Scheduled(fixedDelayString = "${bank.active-users.flush-ms:60000}")
+    public void flush() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        for (Map.Entry<LocalDate, DaySketches> e : live.entrySet()) {
+            DaySketches day = e.getValue();
+            HyperLogLog[] pending = day.takeIfDirty();
+            if (pending != null) {
+                try {
+                    persist(e.getKey(), pending[0], pending[1]);
+                } catch (Exception ex) {
+                    day.markDirty();
+                    System.out.println("❌ Active user sketch flush failed for " + e.getKey() + ": " + ex.getMessage());
+                    continue;
+                }
+            }
+            if (e.getKey().isBefore(yesterday) && !day.isDirty()) {
+                live.remove(e.getKey(), day);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void persist(LocalDate date, HyperLogLog transacting, HyperLogLog loggedIn) {
+        ActiveUserSketch row = sketchRepo.findById(date).orElseGet(() -> new ActiveUserSketch(date));
+        HyperLogLog storedTransacting = HyperLogLog.fromBytes(row.getTransacting());
+        HyperLogLog storedLoggedIn = HyperLogLog.fromBytes(row.getLoggedIn());
+        storedTransacting.merge(transacting);
+        storedLoggedIn.merge(loggedIn);
+        row.setTransacting(storedTransacting.toBytes());
+        row.setLoggedIn(storedLoggedIn.toBytes());
+        row.setUpdatedAt(LocalDateTime.now());
+        sketchRepo.save(row);
+    }
+
+    /**
+     * DAU / WAU / MAU as of the given day (windows end on that day), each split into
+     * transacting, logged-in and either, plus the daily active series of the month.
+     */
+    public Map<String, Object> getActiveUsers(LocalDate asOf) {
+        LocalDate from = asOf.minusDays(MONTH_DAYS - 1);
+        HyperLogLog[][] days = new HyperLogLog[MONTH_DAYS][];
+        for (int i = 0; i < MONTH_DAYS; i++) {
+            days[i] = new HyperLogLog[] { new HyperLogLog(), new HyperLogLog() };
+        }
+        for (ActiveUserSketch row : sketchRepo.findBySketchDateBetweenOrderBySketchDate(from, asOf)) {
+            int i = (int) (row.getSketchDate().toEpochDay() - from.toEpochDay());
+            days[i][0].merge(HyperLogLog.fromBytes(row.getTransacting()));
+            days[i][1].merge(HyperLogLog.fromBytes(row.getLoggedIn()));
+        }
+        for (Map.Entry<LocalDate, DaySketches> e : live.entrySet()) {
+            int i = (int) (e.getKey().toEpochDay() - from.toEpochDay());
+            if (i >= 0 && i < MONTH_DAYS) {
+                HyperLogLog[] current = e.getValue().snapshot();
+                days[i][0].merge(current[0]);
+                days[i][1].merge(current[1]);
+            }
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("asOf", asOf);
+        result.put("dau", window(days, MONTH_DAYS - 1));
+        result.put("wau", window(days, MONTH_DAYS - WEEK_DAYS));
+        result.put("mau", window(days, 0));
+        List<Map<String, Object>> series = new ArrayList<>();
+        for (int i = 0; i < MONTH_DAYS; i++) {
+            HyperLogLog either = days[i][0].copy();
+            either.merge(days[i][1]);
+            Map<String, Object> point = new HashMap<>();
+            point.put("date", from.plusDays(i));
+            point.put("active", either.estimate());
+            series.add(point);
+        }
+        result.put("daily", series);
+        return result;
+    }
+
+    // Distinct counts over days[start..end of month]
+    private static Map<String, Object> window(HyperLogLog[][] days, int start) {
+        HyperLogLog transacting = new HyperLogLog();
+        HyperLogLog loggedIn = new HyperLogLog();
+        for (int i = start; i < days.length; i++) {
+            transacting.merge(days[i][0]);
+            loggedIn.merge(days[i][1]);
+        }
+        HyperLogLog either = transacting.copy();
+        either.merge(loggedIn);
+        Map<String, Object> counts = new HashMap<>();
+        counts.put("active", either.estimate());
+        counts.put("transacting", transacting.estimate());
+        counts.put("loggedIn", loggedIn.estimate());
+        return counts;
+    }
+
+    // The two sketches of one day that have not been persisted yet
+    private static final class DaySketches {
+        private final HyperLogLog transacting = new HyperLogLog();
+        private final HyperLogLog loggedIn = new HyperLogLog();
+        private boolean dirty;
+
+        private synchronized void offer(String accountNumber, boolean login) {
+            if (accountNumber == null) {
+                return;
+            }
+            if ((login ? loggedIn : transacting).offer(accountNumber)) {
+                dirty = true;
+            }
+        }
+
+        private synchronized HyperLogLog[] snapshot() {
+            return new HyperLogLog[] { transacting.copy(), loggedIn.copy() };
+        }
+
+        // The sketches are kept after a flush (they stay a subset of the stored row), so an
+        // account already counted today leaves the registers, and the dirty flag, unchanged
+        private synchronized HyperLogLog[] takeIfDirty() {
+            if (!dirty) {
+                return null;
+            }
+            dirty = false;
+            return snapshot();
+        }
+
+        private synchronized void markDirty() {
+            dirty = true;
+        }
+
+        private synchronized boolean isDirty() {
+            return dirty;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.bankingsystem.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.bankingsystem.repository.StreamingQueryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Full account / transaction dumps for reconciliation as newline-delimited JSON (one object
+ * per line), optionally gzipped. Rows go straight from a streaming JDBC cursor to a Jackson
+ * generator on the response stream, so memory stays flat however large the export is.
+ */
+@Service
+public class AdminExportService {
+
+    public static final Set<String> ACCOUNT_STATUSES = Set.of("ACTIVE", "INACTIVE", "FROZEN");
+
+    @Autowired
+    private StreamingQueryRepository streamingQueryRepo;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Accounts created in [from, to) (both optional), optionally in one status; never includes the pin
+    public void exportAccounts(LocalDateTime from, LocalDateTime to, String status, boolean gzip, OutputStream out)
+            throws IOException {
+        export(gzip, out, gen -> streamingQueryRepo.streamAccounts(from, to, status, rs -> writeRow(gen, () -> {
+            gen.writeStringField("accountNumber", rs.getString("account_number"));
+            gen.writeStringField("name", rs.getString("name"));
+            gen.writeStringField("email", rs.getString("email"));
+            gen.writeStringField("mobileNumber", rs.getString("mobile_number"));
+            gen.writeNumberField("balance", rs.getDouble("balance"));
+            gen.writeBooleanField("frozen", rs.getBoolean("frozen"));
+            gen.writeBooleanField("active", rs.getBoolean("active"));
+            gen.writeNumberField("creditScore", rs.getInt("credit_score"));
+            gen.writeNumberField("dailyExpenseLimit", rs.getDouble("daily_expense_limit"));
+            gen.writeStringField("createdDate", isoOrNull(rs.getTimestamp("created_date")));
+        })));
+    }
+
+    // Transactions dated in [from, to) (both optional), optionally of one type, in id order
+    public void exportTransactions(LocalDateTime from, LocalDateTime to, String type, boolean gzip, OutputStream out)
+            throws IOException {
+        export(gzip, out, gen -> streamingQueryRepo.streamAllTransactions(from, to, type, rs -> writeRow(gen, () -> {
+            gen.writeNumberField("id", rs.getLong("id"));
+            gen.writeStringField("transactionId", rs.getString("transaction_id"));
+            gen.writeStringField("accountNumber", rs.getString("account_number"));
+            gen.writeStringField("type", rs.getString("type"));
+            gen.writeNumberField("amount", rs.getDouble("amount"));
+            gen.writeNumberField("balanceAfter", rs.getDouble("balance_after"));
+            gen.writeStringField("date", isoOrNull(rs.getTimestamp("date")));
+            gen.writeStringField("description", rs.getString("description"));
+        })));
+    }
+
+    private void export(boolean gzip, OutputStream out, Body body) throws IOException {
+        GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(out, 8192) : null;
+        OutputStream target = new BufferedOutputStream(gzip ? gzipOut : out, 8192);
+        JsonGenerator gen = objectMapper.getFactory().createGenerator(target);
+        // No separator between root values; each row ends with its own newline instead
+        gen.setPrettyPrinter(new MinimalPrettyPrinter(""));
+        body.write(gen);
+        gen.flush();
+        if (gzipOut != null) {
+            gzipOut.finish();
+        }
+    }
+
+    // One object per line. Generator IO errors mean the client is gone, so stop reading the cursor.
+    private static void writeRow(JsonGenerator gen, Fields fields) throws SQLException {
+        try {
+            gen.writeStartObject();
+            fields.write();
+            gen.writeEndObject();
+            gen.writeRaw('\n');
+        } catch (IOException e) {
+            throw new SQLException("Client aborted export", e);
+        }
+    }
+
+    private static String isoOrNull(Timestamp ts) {
+        return ts == null ? null : ts.toLocalDateTime().toString();
+    }
+
+    @FunctionalInterface
+    private interface Body {
+        void write(JsonGenerator gen) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Fields {
+        void write() throws IOException, SQLException;
+    }
+}
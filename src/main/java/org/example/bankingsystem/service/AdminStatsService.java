@@ -0,0 +1,95 @@
+package org.example.bankingsystem.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Refresh-ahead cache for the /admin/stats figures. A background task recomputes them
+ * while admins are polling, so reads are served from memory; a read only hits the
+ * database itself when the cached copy is older than the configured staleness bound.
+ */
+@Service
+public class AdminStatsService {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private ActiveUserService activeUserService;
+
+    @Value("${bank.admin.stats.max-staleness-ms:30000}")
+    private long maxStalenessMs;
+
+    // Stop refreshing in the background once nobody has asked for a while
+    @Value("${bank.admin.stats.idle-after-ms:300000}")
+    private long idleAfterMs;
+
+    private volatile Snapshot snapshot;
+    private volatile long lastReadAt;
+    private final Object refreshLock = new Object();
+
+    public Map<String, Object> getStats() {
+        lastReadAt = System.currentTimeMillis();
+        Snapshot current = snapshot;
+        if (current == null || current.ageMs() > maxStalenessMs) {
+            current = refreshIfOlderThan(maxStalenessMs);
+        }
+        Map<String, Object> stats = new HashMap<>(current.values);
+        stats.put("asOf", Instant.ofEpochMilli(current.computedAt).toString());
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${bank.admin.stats.refresh-ms:10000}")
+    public void refreshAhead() {
+        if (System.currentTimeMillis() - lastReadAt > idleAfterMs) {
+            return;
+        }
+        try {
+            refreshIfOlderThan(0);
+        } catch (Exception e) {
+            System.out.println("❌ Admin stats refresh failed: " + e.getMessage());
+        }
+    }
+
+    // Single flight: concurrent callers wait for one computation instead of each running it
+    private Snapshot refreshIfOlderThan(long ageMs) {
+        synchronized (refreshLock) {
+            Snapshot current = snapshot;
+            if (current != null && current.ageMs() <= ageMs && ageMs > 0) {
+                return current;
+            }
+            Map<String, Object> values = new HashMap<>();
+            values.put("totalAccounts", accountService.countAccounts());
+            values.put("totalTransactions", accountService.countTransactions());
+            values.put("activeUsers", accountService.countActiveUsers());
+            values.put("totalBalance", accountService.sumBalances());
+            Map<String, Object> distinct = activeUserService.getActiveUsers(LocalDate.now());
+            values.put("dailyActiveUsers", ((Map<?, ?>) distinct.get("dau")).get("active"));
+            values.put("weeklyActiveUsers", ((Map<?, ?>) distinct.get("wau")).get("active"));
+            values.put("monthlyActiveUsers", ((Map<?, ?>) distinct.get("mau")).get("active"));
+            snapshot = new Snapshot(values, System.currentTimeMillis());
+            return snapshot;
+        }
+    }
+
+    private static final class Snapshot {
+        private final Map<String, Object> values;
+        private final long computedAt;
+
+        private Snapshot(Map<String, Object> values, long computedAt) {
+            this.values = values;
+            this.computedAt = computedAt;
+        }
+
+        private long ageMs() {
+            return System.currentTimeMillis() - computedAt;
+        }
+    }
+}
@@ -0,0 +1,556 @@
+package org.example.bankingsystem.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.bankingsystem.model.Account;
+import org.example.bankingsystem.model.CardHold;
+import org.example.bankingsystem.model.DebitCard;
+import org.example.bankingsystem.model.Transaction;
+import org.example.bankingsystem.repository.AccountRepository;
+import org.example.bankingsystem.repository.CardHoldRepository;
+import org.example.bankingsystem.repository.DebitCardRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Debit card authorization. Card status, limit and today's spend are held in memory per card
+ * (loaded on first use), and an authorization checks the card, adds the amount to today's
+ * spend with a compare-and-set against the limit, and reserves it against the account's
+ * balance less its open holds, all without a write to the database, so concurrent swipes
+ * cannot together exceed the daily limit or the balance.
+ *
+ * Holds and the spend counters are written by a single background thread in batches. A
+ * capture debits the account and posts a CARD_PAYMENT in one transaction, marking the hold
+ * row in the same transaction; releases and expiries give the amount back to the limit and
+ * the account. Open holds are reloaded at startup; authorizations not yet written when the
+ * process stops are lost with their holds.
+ *
+ * Other debits (withdrawals, transfers, bill payments, EMIs) check availableBalance(), the
+ * balance less open holds, but do not take part in the reservation itself: a debit that
+ * commits while an authorization on the same account is being reserved can still leave the
+ * holds above the balance. A capture re-checks the balance under the account's row lock, so
+ * such a hold fails to capture rather than overdrawing the account.
+ */
+@Service
+public class CardAuthorizationService {
+
+    // Today's spend is packed as (epoch day << DAY_SHIFT) | paise, so a new day starts at zero
+    private static final int DAY_SHIFT = 40;
+    private static final long SPENT_MASK = (1L << DAY_SHIFT) - 1;
+    private static final String SETTLE_SQL = "UPDATE card_hold SET status = ?, captured_amount = ?, "
+            + "resolved_at = ?, transaction_id = ? WHERE hold_id = ?";
+    private static final String CARD_SPENT_SQL = "UPDATE debit_card SET current_day_spent = ?, last_reset_date = ? "
+            + "WHERE card_number = ?";
+
+    @Autowired
+    private DebitCardRepository debitCardRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CardHoldRepository cardHoldRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Authorizations not captured within this long are released
+    @Value("${bank.cards.hold-expiry-hours:168}")
+    private long holdExpiryHours;
+
+    @Value("${bank.cards.write-batch-size:500}")
+    private int writeBatchSize;
+
+    @Value("${bank.cards.write-interval-ms:200}")
+    private long writeIntervalMs;
+
+    private final Map<String, CardState> cards = new ConcurrentHashMap<>();
+    private final Map<String, AccountFunds> funds = new ConcurrentHashMap<>();
+    private final Map<String, CardHold> activeHolds = new ConcurrentHashMap<>();
+    private final BlockingQueue<CardHold> unsavedHolds = new LinkedBlockingQueue<>();
+    private final Set<String> unsavedCards = ConcurrentHashMap.newKeySet();
+    private final LongAdder approved = new LongAdder();
+    private final Map<String, LongAdder> declined = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+    private volatile boolean stopping;
+    private Thread writer;
+
+    // Open holds are reserved again before any authorization is accepted
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            for (CardHold hold : cardHoldRepository.findByStatus("AUTHORIZED")) {
+                activeHolds.put(hold.getHoldId(), hold);
+                funds(hold.getAccountNumber()).add(toPaise(hold.getAmount()));
+            }
+            ready = true;
+        } catch (Exception e) {
+            System.out.println("❌ Card holds load failed: " + e.getMessage());
+        }
+        writer = new Thread(this::writeLoop, "card-hold-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopping = true;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /**
+     * Authorizes `amount` on a card and holds it; the result has approved, reason (when
+     * declined) and holdId. A card-present authorization passes online=false.
+     */
+    public Map<String, Object> authorize(String cardNumber, double amount, String merchant, boolean online) {
+        long paise = toPaise(amount);
+        if (paise <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        if (!ready) {
+            return decline("UNAVAILABLE");
+        }
+        CardState card = cardState(cardNumber);
+        if (card == null) {
+            return decline("CARD_NOT_FOUND");
+        }
+        LocalDate today = LocalDate.now();
+        String reason = card.check(today, online);
+        if (reason != null) {
+            return decline(reason);
+        }
+        long day = today.toEpochDay();
+        if (!card.tryAddSpent(day, paise)) {
+            return decline("DAILY_LIMIT_EXCEEDED");
+        }
+
+        reason = reserve(card.accountNumber, paise);
+        if (reason != null) {
+            card.subtractSpent(day, paise);
+            return decline(reason);
+        }
+        CardHold hold = new CardHold(UUID.randomUUID().toString(), cardNumber, card.accountNumber, amount, merchant);
+        activeHolds.put(hold.getHoldId(), hold);
+        unsavedHolds.offer(hold);
+        unsavedCards.add(cardNumber);
+        approved.increment();
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("approved", true);
+        result.put("holdId", hold.getHoldId());
+        result.put("amount", amount);
+        result.put("remainingLimit", card.remaining(day) / 100.0);
+        return result;
+    }
+
+    // Reserves the amount against the account's balance less its open holds; null if reserved
+    private String reserve(String accountNumber, long paise) {
+        AccountFunds accountFunds = funds(accountNumber);
+        while (true) {
+            long captures = accountFunds.captures();
+            Account acc = accountRepository.findById(accountNumber).orElse(null);
+            if (acc == null) {
+                return "ACCOUNT_NOT_FOUND";
+            }
+            if (acc.isFrozen() || !acc.isActive()) {
+                return "ACCOUNT_FROZEN";
+            }
+            int reserved = accountFunds.reserve(captures, toPaise(acc.getBalance()), paise);
+            if (reserved > 0) {
+                return null;
+            }
+            if (reserved == 0) {
+                return "INSUFFICIENT_FUNDS";
+            }
+            // A capture committed after the balance was read; read it again
+        }
+    }
+
+    /**
+     * Captures a hold (all of it, or `amount` of it): debits the account and posts a
+     * CARD_PAYMENT. Any part not captured goes back to the card's daily limit.
+     */
+    public CardHold capture(String holdId, Double amount) {
+        CardHold hold = activeHolds.remove(holdId);
+        if (hold == null) {
+            throw new IllegalArgumentException("Hold not found or already settled");
+        }
+        long heldPaise = toPaise(hold.getAmount());
+        double captured = amount != null ? amount : hold.getAmount();
+        long capturedPaise = toPaise(captured);
+        if (capturedPaise <= 0 || capturedPaise > heldPaise) {
+            activeHolds.put(holdId, hold);
+            throw new IllegalArgumentException("Capture amount must be positive and at most the authorized amount");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Transaction posted;
+        try {
+            posted = new TransactionTemplate(transactionManager).execute(status -> {
+                Account acc = accountRepository.findForUpdate(hold.getAccountNumber())
+                        .orElseThrow(() -> new IllegalStateException("Account not found"));
+                if (acc.getBalance() < captured) {
+                    throw new IllegalStateException("Insufficient balance to capture");
+                }
+                acc.setBalance(acc.getBalance() - captured);
+                accountRepository.save(acc);
+                String description = hold.getMerchant() != null ? "Card payment at " + hold.getMerchant()
+                        : "Card payment";
+                Transaction t = transactionService.post(new Transaction(acc.getAccountNumber(), "CARD_PAYMENT",
+                        captured, acc.getBalance(), description));
+                jdbcTemplate.update(SETTLE_SQL, "CAPTURED", captured, Timestamp.valueOf(now), t.getId(), holdId);
+                return t;
+            });
+        } catch (RuntimeException e) {
+            activeHolds.put(holdId, hold);
+            throw e;
+        }
+
+        funds(hold.getAccountNumber()).release(heldPaise, true);
+        if (capturedPaise < heldPaise) {
+            giveBackToLimit(hold, heldPaise - capturedPaise);
+        }
+        hold.setStatus("CAPTURED");
+        hold.setCapturedAmount(captured);
+        hold.setResolvedAt(now);
+        hold.setTransactionId(posted.getId());
+        unsavedHolds.offer(hold);
+        return hold;
+    }
+
+    // Releases a hold without capturing it (a reversal)
+    public CardHold release(String holdId) {
+        CardHold hold = activeHolds.remove(holdId);
+        if (hold == null) {
+            throw new IllegalArgumentException("Hold not found or already settled");
+        }
+        settle(hold, "RELEASED");
+        return hold;
+    }
+
+    // Releases holds older than the expiry window
+    @Scheduled(fixedDelayString = "${bank.cards.hold-expiry-check-ms:60000}")
+    public void expireHolds() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(holdExpiryHours);
+        int expired = 0;
+        for (CardHold hold : new ArrayList<>(activeHolds.values())) {
+            if (hold.getAuthorizedAt().isBefore(cutoff) && activeHolds.remove(hold.getHoldId(), hold)) {
+                try {
+                    settle(hold, "EXPIRED");
+                    expired++;
+                } catch (Exception e) {
+                    activeHolds.put(hold.getHoldId(), hold);
+                    System.out.println("❌ Card hold expiry failed for " + hold.getHoldId() + ": " + e.getMessage());
+                }
+            }
+        }
+        if (expired > 0) {
+            System.out.println("Card holds expired: " + expired);
+        }
+    }
+
+    private void settle(CardHold hold, String status) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(SETTLE_SQL, status, 0, Timestamp.valueOf(now), null, hold.getHoldId());
+        long heldPaise = toPaise(hold.getAmount());
+        funds(hold.getAccountNumber()).release(heldPaise, false);
+        giveBackToLimit(hold, heldPaise);
+        hold.setStatus(status);
+        hold.setResolvedAt(now);
+        unsavedHolds.offer(hold);
+    }
+
+    // Only an authorization made today counts towards today's spend
+    private void giveBackToLimit(CardHold hold, long paise) {
+        CardState card = cards.get(hold.getCardNumber());
+        if (card != null && card.subtractSpent(hold.getAuthorizedAt().toLocalDate().toEpochDay(), paise)) {
+            unsavedCards.add(hold.getCardNumber());
+        }
+    }
+
+    // What open holds have reserved of an account's balance
+    public double heldAmount(String accountNumber) {
+        AccountFunds accountFunds = funds.get(accountNumber);
+        return accountFunds != null ? accountFunds.held() / 100.0 : 0;
+    }
+
+    // The balance less open holds: what a debit other than a capture may take
+    public double availableBalance(Account acc) {
+        return acc.getBalance() - heldAmount(acc.getAccountNumber());
+    }
+
+    // What is left of a card's daily limit today, without any write; -1 if there is no such card
+    public double remainingLimit(String cardNumber) {
+        CardState card = cardState(cardNumber);
+        return card != null ? card.remaining(LocalDate.now().toEpochDay()) / 100.0 : -1;
+    }
+
+    // Counts spend that did not go through authorize (no hold, no limit check) towards today's limit
+    public boolean recordSpend(String cardNumber, double amount) {
+        CardState card = cardState(cardNumber);
+        if (card == null) {
+            return false;
+        }
+        card.addSpent(LocalDate.now().toEpochDay(), toPaise(amount));
+        unsavedCards.add(cardNumber);
+        return true;
+    }
+
+    // Called after a card's status, limit or online flag is changed
+    public void refresh(DebitCard card) {
+        CardState state = cards.get(card.getCardNumber());
+        if (state != null) {
+            state.update(card);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("ready", ready);
+        stats.put("cachedCards", cards.size());
+        stats.put("activeHolds", activeHolds.size());
+        stats.put("unsavedHolds", unsavedHolds.size());
+        stats.put("approved", approved.sum());
+        Map<String, Long> declines = new TreeMap<>();
+        declined.forEach((reason, count) -> declines.put(reason, count.sum()));
+        stats.put("declined", declines);
+        return stats;
+    }
+
+    private Map<String, Object> decline(String reason) {
+        declined.computeIfAbsent(reason, k -> new LongAdder()).increment();
+        Map<String, Object> result = new HashMap<>();
+        result.put("approved", false);
+        result.put("reason", reason);
+        return result;
+    }
+
+    private CardState cardState(String cardNumber) {
+        CardState state = cards.get(cardNumber);
+        if (state != null) {
+            return state;
+        }
+        DebitCard card = debitCardRepository.findByCardNumber(cardNumber).orElse(null);
+        if (card == null) {
+            return null;
+        }
+        state = new CardState(card);
+        CardState existing = cards.putIfAbsent(cardNumber, state);
+        return existing != null ? existing : state;
+    }
+
+    private AccountFunds funds(String accountNumber) {
+        return funds.computeIfAbsent(accountNumber, k -> new AccountFunds());
+    }
+
+    private static long toPaise(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    // Writes new and settled holds and changed card spend in batches
+    private void writeLoop() {
+        List<CardHold> batch = new ArrayList<>();
+        while (!stopping || !unsavedHolds.isEmpty() || !unsavedCards.isEmpty()) {
+            try {
+                CardHold first = unsavedHolds.poll(writeIntervalMs, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    unsavedHolds.drainTo(batch, Math.max(1, writeBatchSize) - 1);
+                }
+                writeBatch(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                System.out.println("❌ Card hold write failed: " + e.getMessage());
+                // Kept for the next pass
+                unsavedHolds.addAll(batch);
+                batch.clear();
+                try {
+                    Thread.sleep(Math.max(writeIntervalMs, 1000));
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void writeBatch(List<CardHold> batch) {
+        if (!batch.isEmpty()) {
+            // A hold authorized and settled between two passes is written once, in its final state
+            cardHoldRepository.saveAll(new LinkedHashSet<>(batch));
+        }
+        if (unsavedCards.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (String cardNumber : new ArrayList<>(unsavedCards)) {
+            unsavedCards.remove(cardNumber);
+            CardState card = cards.get(cardNumber);
+            if (card != null) {
+                long packed = card.spent.get();
+                rows.add(new Object[] { (packed & SPENT_MASK) / 100.0,
+                        Date.valueOf(LocalDate.ofEpochDay(packed >>> DAY_SHIFT)), cardNumber });
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(CARD_SPENT_SQL, rows);
+        }
+    }
+
+    // The cached, authorization-relevant part of a DebitCard
+    private static final class CardState {
+        private final String accountNumber;
+        private final AtomicLong spent;
+        private volatile String status;
+        private volatile long limitPaise;
+        private volatile boolean onlineEnabled;
+        private volatile LocalDate expiryDate;
+
+        private CardState(DebitCard card) {
+            this.accountNumber = card.getAccountNumber();
+            LocalDate lastReset = card.getLastResetDate() != null ? card.getLastResetDate() : LocalDate.now();
+            this.spent = new AtomicLong((lastReset.toEpochDay() << DAY_SHIFT) | toPaise(card.getCurrentDaySpent()));
+            update(card);
+        }
+
+        private void update(DebitCard card) {
+            status = card.getStatus();
+            limitPaise = toPaise(card.getDailyLimit());
+            onlineEnabled = card.isOnlineTransactionsEnabled();
+            expiryDate = card.getExpiryDate();
+        }
+
+        private String check(LocalDate today, boolean online) {
+            if (!"ACTIVE".equals(status)) {
+                return "CARD_" + status;
+            }
+            if (expiryDate != null && expiryDate.isBefore(today)) {
+                return "CARD_EXPIRED";
+            }
+            if (online && !onlineEnabled) {
+                return "ONLINE_DISABLED";
+            }
+            return null;
+        }
+
+        private long spentOn(long packed, long day) {
+            return packed >>> DAY_SHIFT == day ? packed & SPENT_MASK : 0;
+        }
+
+        private long remaining(long day) {
+            return Math.max(0, limitPaise - spentOn(spent.get(), day));
+        }
+
+        private boolean tryAddSpent(long day, long paise) {
+            while (true) {
+                long current = spent.get();
+                long total = spentOn(current, day) + paise;
+                if (total > limitPaise) {
+                    return false;
+                }
+                if (spent.compareAndSet(current, (day << DAY_SHIFT) | total)) {
+                    return true;
+                }
+            }
+        }
+
+        private void addSpent(long day, long paise) {
+            while (true) {
+                long current = spent.get();
+                if (spent.compareAndSet(current, (day << DAY_SHIFT) | (spentOn(current, day) + paise))) {
+                    return;
+                }
+            }
+        }
+
+        // False when the spend belongs to an earlier day (nothing to give back)
+        private boolean subtractSpent(long day, long paise) {
+            while (true) {
+                long current = spent.get();
+                if (current >>> DAY_SHIFT != day) {
+                    return false;
+                }
+                long total = Math.max(0, (current & SPENT_MASK) - paise);
+                if (spent.compareAndSet(current, (day << DAY_SHIFT) | total)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Open holds on one account. The balance is read from the database outside the lock, so
+     * `captures` is bumped whenever a capture's debit has committed: a reservation made with
+     * a balance read before that is retried rather than checked against a stale balance.
+     */
+    private static final class AccountFunds {
+        private long held;
+        private long captures;
+
+        private synchronized long captures() {
+            return captures;
+        }
+
+        private synchronized long held() {
+            return held;
+        }
+
+        private synchronized void add(long paise) {
+            held += paise;
+        }
+
+        // 1 if reserved, 0 if the balance does not cover it, -1 if the balance read is stale
+        private synchronized int reserve(long seenCaptures, long balancePaise, long paise) {
+            if (seenCaptures != captures) {
+                return -1;
+            }
+            if (held + paise > balancePaise) {
+                return 0;
+            }
+            held += paise;
+            return 1;
+        }
+
+        private synchronized void release(long paise, boolean captured) {
+            held = Math.max(0, held - paise);
+            if (captured) {
+                captures++;
+            }
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package org.example.bankingsystem.service;
+
+import org.example.bankingsystem.model.DebitCard;
+import org.example.bankingsystem.repository.AccountRepository;
+import org.example.bankingsystem.repository.DebitCardRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Local card network for load testing authorizations. A run drives CardAuthorizationService
+ * with an open-loop stream of authorizations at a fixed rate against issued ACTIVE cards,
+ * and settles every approved one right away with a (sometimes partial) capture or a
+ * reversal. Latency is measured from the moment each request was due to be sent, so a
+ * backlog shows up in p99 rather than as a lower send rate.
+ *
+ * At the end each card's spend is checked against its daily limit, counting what it had
+ * already used that day when the run started (an open hold from before the run that is
+ * released during it still counts, so the check errs towards reporting a violation), and
+ * every touched account against a negative balance; both should stay at zero. If requests
+ * are still in flight five minutes after the last one was sent, the summary is built from
+ * what finished and marked timedOut.
+ *
+ * Captures debit real balances and post CARD_PAYMENT transactions, so the simulator is off
+ * unless bank.card-sim.enabled is set, and is meant for local and test databases only.
+ */
+@Service
+public class CardNetworkSimulator {
+
+    private static final int MAX_SAMPLES = 2_000_000;
+
+    @Autowired
+    private CardAuthorizationService cardAuthorizationService;
+
+    @Autowired
+    private DebitCardRepository debitCardRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Value("${bank.card-sim.enabled:false}")
+    private boolean enabled;
+
+    // Authorizations per second
+    @Value("${bank.card-sim.rate:200}")
+    private int defaultRate;
+
+    @Value("${bank.card-sim.duration-seconds:30}")
+    private int defaultDurationSeconds;
+
+    @Value("${bank.card-sim.workers:16}")
+    private int workers;
+
+    @Value("${bank.card-sim.max-cards:1000}")
+    private int maxCards;
+
+    @Value("${bank.card-sim.max-amount:2000}")
+    private double maxAmount;
+
+    // Share of approved authorizations captured; the rest are reversed
+    @Value("${bank.card-sim.capture-ratio:0.8}")
+    private double captureRatio;
+
+    @Value("${bank.card-sim.online-ratio:0.3}")
+    private double onlineRatio;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile Map<String, Object> lastRun;
+
+    // Starts a run in the background; rate and duration fall back to the configured ones
+    public boolean startRun(Integer rate, Integer durationSeconds) {
+        if (!enabled) {
+            throw new IllegalStateException("Card network simulator is disabled (bank.card-sim.enabled)");
+        }
+        int r = rate != null ? rate : defaultRate;
+        int d = durationSeconds != null ? durationSeconds : defaultDurationSeconds;
+        checkArguments(r, d);
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        List<DebitCard> cards;
+        try {
+            cards = activeCards();
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        new Thread(() -> {
+            try {
+                doRun(r, d, cards);
+            } catch (Exception e) {
+                System.out.println("❌ Card simulator run failed: " + e.getMessage());
+            } finally {
+                running.set(false);
+            }
+        }, "card-sim").start();
+        return true;
+    }
+
+    public Map<String, Object> getLastRun() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("enabled", enabled);
+        result.put("running", running.get());
+        result.put("lastRun", lastRun);
+        return result;
+    }
+
+    private static void checkArguments(int rate, int durationSeconds) {
+        if (rate <= 0 || durationSeconds <= 0) {
+            throw new IllegalArgumentException("Rate and duration must be positive");
+        }
+    }
+
+    private List<DebitCard> activeCards() {
+        List<DebitCard> cards = debitCardRepository
+                .findByStatusOrderByIssuedDateAscIdAsc("ACTIVE", PageRequest.of(0, Math.max(1, maxCards)))
+                .getContent();
+        if (cards.isEmpty()) {
+            throw new IllegalStateException("No active cards to run against");
+        }
+        return cards;
+    }
+
+    // Runs `rate` authorizations a second for `durationSeconds`; the caller holds `running`
+    private Map<String, Object> doRun(int rate, int durationSeconds, List<DebitCard> cards)
+            throws InterruptedException {
+        Run run = new Run((int) Math.min((long) rate * durationSeconds, MAX_SAMPLES));
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, workers));
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = (long) rate * durationSeconds;
+        for (DebitCard card : cards) {
+            run.startSpent.put(card.getCardNumber(), spentSoFar(card));
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        long started = System.nanoTime();
+        boolean timedOut = false;
+        try {
+            for (long i = 0; i < total; i++) {
+                long due = started + i * intervalNanos;
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                DebitCard card = cards.get(ThreadLocalRandom.current().nextInt(cards.size()));
+                pool.execute(() -> transact(run, card, due));
+            }
+        } finally {
+            pool.shutdown();
+            timedOut = !pool.awaitTermination(5, TimeUnit.MINUTES);
+            if (timedOut) {
+                pool.shutdownNow();
+                System.out.println("❌ Card simulator: requests still in flight after 5 minutes, summary is partial");
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("startedAt", startedAt.toString());
+        summary.put("targetRate", rate);
+        summary.put("durationSeconds", seconds);
+        summary.put("timedOut", timedOut);
+        summary.put("cards", cards.size());
+        summary.put("authorizations", run.authorizations.sum());
+        summary.put("approved", run.approved.sum());
+        summary.put("captures", run.captures.sum());
+        summary.put("reversals", run.reversals.sum());
+        summary.put("errors", run.errors.sum());
+        summary.put("throughputPerSecond", run.authorizations.sum() / seconds);
+        summary.put("authorizeLatencyMs", run.authorizeLatency.summary());
+        summary.put("settleLatencyMs", run.settleLatency.summary());
+        Map<String, Long> declines = new TreeMap<>();
+        run.declines.forEach((reason, count) -> declines.put(reason, count.sum()));
+        summary.put("declined", declines);
+        summary.put("limitViolations", countLimitViolations(run, cards));
+        summary.put("negativeBalances", countNegativeBalances(cards));
+        lastRun = summary;
+        System.out.println("Card simulator run: " + summary);
+        return summary;
+    }
+
+    private void transact(Run run, DebitCard card, long due) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            double amount = Math.max(1, Math.round(random.nextDouble() * maxAmount * 100) / 100.0);
+            boolean online = random.nextDouble() < onlineRatio;
+            Map<String, Object> result = cardAuthorizationService.authorize(card.getCardNumber(), amount, "SIM-"
+                    + random.nextInt(1000), online);
+            run.authorizeLatency.record(System.nanoTime() - due);
+            run.authorizations.increment();
+            if (!Boolean.TRUE.equals(result.get("approved"))) {
+                run.declines.computeIfAbsent(String.valueOf(result.get("reason")), k -> new LongAdder()).increment();
+                return;
+            }
+            run.approved.increment();
+            String holdId = (String) result.get("holdId");
+            LongAdder spent = run.spentByCard.computeIfAbsent(card.getCardNumber(), k -> new LongAdder());
+            long settleStarted = System.nanoTime();
+            if (random.nextDouble() < captureRatio) {
+                // One capture in ten is for less than was authorized (tips, partial shipments)
+                double captured = random.nextInt(10) == 0 ? Math.max(0.01, Math.round(amount * 50) / 100.0) : amount;
+                cardAuthorizationService.capture(holdId, captured);
+                spent.add(Math.round(captured * 100));
+                run.captures.increment();
+            } else {
+                cardAuthorizationService.release(holdId);
+                run.reversals.increment();
+            }
+            run.settleLatency.record(System.nanoTime() - settleStarted);
+        } catch (Exception e) {
+            run.errors.increment();
+        }
+    }
+
+    // Paise of the card's limit already used today (captures and open holds) when the run starts
+    private long spentSoFar(DebitCard card) {
+        double remaining = cardAuthorizationService.remainingLimit(card.getCardNumber());
+        long limit = Math.round(card.getDailyLimit() * 100);
+        return remaining < 0 ? 0 : Math.max(0, limit - Math.round(remaining * 100));
+    }
+
+    // Cards whose spend before the run plus their net spend in it is above their daily limit
+    private long countLimitViolations(Run run, List<DebitCard> cards) {
+        long violations = 0;
+        for (DebitCard card : cards) {
+            LongAdder spent = run.spentByCard.get(card.getCardNumber());
+            long before = run.startSpent.getOrDefault(card.getCardNumber(), 0L);
+            if (spent != null && before + spent.sum() > Math.round(card.getDailyLimit() * 100)) {
+                violations++;
+            }
+        }
+        return violations;
+    }
+
+    private long countNegativeBalances(List<DebitCard> cards) {
+        List<String> accounts = cards.stream().map(DebitCard::getAccountNumber).distinct().toList();
+        return accountRepository.findAllById(accounts).stream().filter(a -> a.getBalance() < 0).count();
+    }
+
+    private static final class Run {
+        private final LongAdder authorizations = new LongAdder();
+        private final LongAdder approved = new LongAdder();
+        private final LongAdder captures = new LongAdder();
+        private final LongAdder reversals = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final Map<String, LongAdder> declines = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> spentByCard = new ConcurrentHashMap<>();
+        private final Map<String, Long> startSpent = new HashMap<>();
+        private final Latencies authorizeLatency;
+        private final Latencies settleLatency;
+
+        private Run(int samples) {
+            authorizeLatency = new Latencies(samples);
+            settleLatency = new Latencies(samples);
+        }
+    }
+
+    // Latency samples in nanoseconds; each recorder claims its own slot
+    private static final class Latencies {
+        private final long[] samples;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private Latencies(int capacity) {
+            samples = new long[Math.max(1, capacity)];
+        }
+
+        private void record(long nanos) {
+            int i = count.getAndIncrement();
+            if (i < samples.length) {
+                samples[i] = nanos;
+            }
+        }
+
+        private Map<String, Object> summary() {
+            int n = Math.min(count.get(), samples.length);
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("count", n);
+            if (n == 0) {
+                return summary;
+            }
+            long[] sorted = Arrays.copyOf(samples, n);
+            Arrays.sort(sorted);
+            summary.put("p50", percentile(sorted, 0.50));
+            summary.put("p99", percentile(sorted, 0.99));
+            summary.put("max", sorted[n - 1] / 1e6);
+            return summary;
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+        }
+    }
+}
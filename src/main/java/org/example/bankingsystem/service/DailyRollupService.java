@@ -0,0 +1,170 @@
+package org.example.bankingsystem.service;
+
+import org.example.bankingsystem.event.TransactionPostedEvent;
+import org.example.bankingsystem.model.DailyRollup;
+import org.example.bankingsystem.model.Transaction;
+import org.example.bankingsystem.repository.AccountRepository;
+import org.example.bankingsystem.repository.DailyRollupRepository;
+import org.example.bankingsystem.repository.DebitCardRepository;
+import org.example.bankingsystem.repository.TransactionRepository;
+import org.example.bankingsystem.repository.projection.DailyCount;
+import org.example.bankingsystem.repository.projection.DailyTotal;
+import org.springframework.beans.factory.annotation.Autowired;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-day admin dashboard counters (transaction volume/count, new accounts, card requests).
+ * Committed postings are added to in-memory per-day adders and upserted into daily_rollup
+ * periodically, so postings do not all queue on today's row; new accounts and card requests
+ * are upserted with their write. Reads include what has not been flushed yet, and the rows
+ * are re-derivable from the source tables with rebuild().
+ */
+@Service
+public class DailyRollupService {
+
+    @Autowired
+    private DailyRollupRepository rollupRepo;
+
+    @Autowired
+    private TransactionRepository transactionRepo;
+
+    @Autowired
+    private AccountRepository accountRepo;
+
+    @Autowired
+    private DebitCardRepository debitCardRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<LocalDate, DayTotals> unflushed = new ConcurrentHashMap<>();
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        Transaction t = event.getTransaction();
+        LocalDate day = t.getDate() != null ? t.getDate().toLocalDate() : LocalDate.now();
+        unflushed.computeIfAbsent(day, d -> new DayTotals()).add(t.getAmount());
+    }
+
+    // Upsert each day's unflushed totals and subtract what was written, so postings added
+    // meanwhile stay for the next flush; settled days before yesterday are forgotten.
+    // Each day is upserted in its own transaction (or joins the caller's, for rebuild).
+    @Scheduled(fixedDelayString = "${bank.rollup.flush-ms:5000}")
+    public synchronized void flush() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        for (Map.Entry<LocalDate, DayTotals> e : unflushed.entrySet()) {
+            DayTotals totals = e.getValue();
+            long count = totals.count.sum();
+            double volume = totals.volume.sum();
+            if (count != 0) {
+                try {
+                    tx.executeWithoutResult(status -> rollupRepo.add(e.getKey(), volume, count, 0, 0));
+                } catch (Exception ex) {
+                    System.out.println("❌ Daily rollup flush failed for " + e.getKey() + ": " + ex.getMessage());
+                    continue;
+                }
+                totals.count.add(-count);
+                totals.volume.add(-volume);
+            }
+            if (e.getKey().isBefore(yesterday) && totals.count.sum() == 0) {
+                unflushed.remove(e.getKey(), totals);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public void recordNewAccount(LocalDateTime createdDate) {
+        rollupRepo.add(createdDate.toLocalDate(), 0.0, 0, 1, 0);
+    }
+
+    public void recordCardRequest(LocalDateTime issuedDate) {
+        rollupRepo.add(issuedDate.toLocalDate(), 0.0, 0, 0, 1);
+    }
+
+    // The last `days` days, oldest first, with empty days filled in
+    public List<DailyRollup> getLastDays(int days) {
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(days - 1L);
+        Map<LocalDate, DailyRollup> stored = new TreeMap<>();
+        for (DailyRollup r : rollupRepo.findByRollupDateBetweenOrderByRollupDate(from, to)) {
+            stored.put(r.getRollupDate(), r);
+        }
+        List<DailyRollup> result = new ArrayList<>();
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            DailyRollup r = stored.getOrDefault(d, new DailyRollup(d));
+            DayTotals totals = unflushed.get(d);
+            if (totals != null && totals.count.sum() != 0) {
+                // A copy, so the stored entity is never changed
+                DailyRollup merged = new DailyRollup(d);
+                merged.setTransactionVolume(r.getTransactionVolume() + totals.volume.sum());
+                merged.setTransactionCount(r.getTransactionCount() + totals.count.sum());
+                merged.setNewAccounts(r.getNewAccounts());
+                merged.setCardRequests(r.getCardRequests());
+                r = merged;
+            }
+            result.add(r);
+        }
+        return result;
+    }
+
+    // Recompute the rows for [from, to] from the transaction, account and debit card tables.
+    // Unflushed totals are written first so they are replaced rather than added on top later;
+    // postings that commit while this runs may be counted twice or missed for those days.
+    @Transactional
+    public int rebuild(LocalDate from, LocalDate to) {
+        flush();
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        Map<LocalDate, DailyRollup> rows = new TreeMap<>();
+
+        for (DailyTotal t : transactionRepo.sumByDay(start, end)) {
+            DailyRollup r = rows.computeIfAbsent(t.getBucketDate(), DailyRollup::new);
+            r.setTransactionVolume(t.getTotal() == null ? 0.0 : t.getTotal());
+            r.setTransactionCount(t.getBucketCount());
+        }
+        for (DailyCount c : accountRepo.countCreatedByDay(start, end)) {
+            rows.computeIfAbsent(c.getBucketDate(), DailyRollup::new).setNewAccounts(c.getBucketCount());
+        }
+        for (DailyCount c : debitCardRepo.countIssuedByDay(start, end)) {
+            rows.computeIfAbsent(c.getBucketDate(), DailyRollup::new).setCardRequests(c.getBucketCount());
+        }
+
+        rollupRepo.deleteByRollupDateBetween(from, to);
+        rollupRepo.flush();
+        rollupRepo.saveAll(rows.values());
+        return rows.size();
+    }
+
+    // Committed postings of one day not yet written to daily_rollup
+    private static final class DayTotals {
+        private final DoubleAdder volume = new DoubleAdder();
+        private final LongAdder count = new LongAdder();
+
+        private void add(double amount) {
+            volume.add(amount);
+            count.increment();
+        }
+    }
+}
@@ -5,14 +5,30 @@ import org.example.bankingsystem.model.Account;
 import org.example.bankingsystem.repository.DebitCardRepository;
 import org.example.bankingsystem.repository.AccountRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.sql.Date;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 public class DebitCardService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final String RESET_SQL = "UPDATE debit_card SET current_day_spent = 0, last_reset_date = ? "
+            + "WHERE (last_reset_date IS NULL OR last_reset_date < ?) AND id > ? AND id <= ?";
+
     @Autowired
     private DebitCardRepository debitCardRepository;
 
@@ -22,7 +38,27 @@ public class DebitCardService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private DailyRollupService dailyRollupService;
+
+    @Autowired
+    private CardAuthorizationService cardAuthorizationService;
+
+    @Autowired
+    private PendingCountService pendingCountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${bank.cards.limit-reset-chunk-size:5000}")
+    private int limitResetChunkSize;
+
+    private final AtomicBoolean resetRunning = new AtomicBoolean(false);
+    private final LongAdder cardsResetTotal = new LongAdder();
+    private volatile Map<String, Object> lastLimitReset;
+
     // Issue debit card for an account
+    @Transactional
     public DebitCard issueDebitCard(String accountNumber) {
         Optional<Account> account = accountRepository.findById(accountNumber);
 
@@ -43,6 +79,8 @@ public class DebitCardService {
 
         DebitCard card = new DebitCard(accountNumber, acc.getName());
         DebitCard savedCard = debitCardRepository.save(card);
+        dailyRollupService.recordCardRequest(savedCard.getIssuedDate());
+        pendingCountService.invalidate();
 
         // Send email with card details
         emailService.sendDebitCardEmail(acc.getEmail(), savedCard.getCardNumber(),
@@ -73,6 +111,7 @@ public class DebitCardService {
         DebitCard cardObj = card.get();
         cardObj.setStatus("BLOCKED");
         debitCardRepository.save(cardObj);
+        cardAuthorizationService.refresh(cardObj);
         return true;
     }
 
@@ -87,47 +126,79 @@ public class DebitCardService {
         DebitCard cardObj = card.get();
         cardObj.setStatus("ACTIVE");
         debitCardRepository.save(cardObj);
+        cardAuthorizationService.refresh(cardObj);
         return true;
     }
 
-    // Check if daily limit is available
+    // Check if daily limit is available. Spend is day-stamped, so yesterday's spend reads as
+    // zero without writing the card back; use CardAuthorizationService.authorize to check and
+    // spend in one step.
     public boolean isDailyLimitAvailable(String cardNumber, double amount) {
-        Optional<DebitCard> card = debitCardRepository.findByCardNumber(cardNumber);
-
-        if (!card.isPresent()) {
-            return false;
-        }
-
-        DebitCard cardObj = card.get();
-
-        // Reset daily spending if date has changed
-        if (!cardObj.getLastResetDate().equals(LocalDate.now())) {
-            cardObj.setCurrentDaySpent(0);
-            cardObj.setLastResetDate(LocalDate.now());
-            debitCardRepository.save(cardObj);
-        }
-
-        return (cardObj.getCurrentDaySpent() + amount) <= cardObj.getDailyLimit();
+        double remaining = cardAuthorizationService.remainingLimit(cardNumber);
+        return remaining >= 0 && amount <= remaining;
     }
 
     // Update daily spending
     public void updateDailySpending(String cardNumber, double amount) {
-        Optional<DebitCard> card = debitCardRepository.findByCardNumber(cardNumber);
-
-        if (card.isPresent()) {
-            DebitCard cardObj = card.get();
+        cardAuthorizationService.recordSpend(cardNumber, amount);
+    }
 
-            // Reset if date changed
-            if (!cardObj.getLastResetDate().equals(LocalDate.now())) {
-                cardObj.setCurrentDaySpent(0);
-                cardObj.setLastResetDate(LocalDate.now());
+    /**
+     * Midnight reset of the stored daily spend. Reads never depend on it (a card's spend is
+     * stamped with its day), it only keeps current_day_spent in the table current; it runs as
+     * bulk UPDATEs over id ranges of limit-reset-chunk-size cards, each in its own statement,
+     * so no long lock is held on debit_card. Also run at startup to cover a missed midnight.
+     */
+    @Scheduled(cron = "${bank.cards.limit-reset-cron:0 0 0 * * *}")
+    public void resetDailySpending() {
+        if (!resetRunning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            LocalDate today = LocalDate.now();
+            Map<String, Object> bounds = jdbcTemplate.queryForMap("SELECT MIN(id) AS lo, MAX(id) AS hi FROM debit_card");
+            long reset = 0;
+            int chunks = 0;
+            if (bounds.get("lo") != null) {
+                long lo = ((Number) bounds.get("lo")).longValue() - 1;
+                long hi = ((Number) bounds.get("hi")).longValue();
+                long step = Math.max(1, limitResetChunkSize);
+                Date day = Date.valueOf(today);
+                for (long from = lo; from < hi; from += step) {
+                    reset += jdbcTemplate.update(RESET_SQL, day, day, from, from + step);
+                    chunks++;
+                }
             }
-
-            cardObj.setCurrentDaySpent(cardObj.getCurrentDaySpent() + amount);
-            debitCardRepository.save(cardObj);
+            cardsResetTotal.add(reset);
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("date", today.toString());
+            summary.put("cardsReset", reset);
+            summary.put("chunks", chunks);
+            summary.put("durationMs", System.currentTimeMillis() - started);
+            summary.put("finishedAt", LocalDateTime.now().toString());
+            lastLimitReset = summary;
+            System.out.println("Card daily spend reset: " + reset + " cards in " + chunks + " chunks");
+        } catch (Exception e) {
+            System.out.println("❌ Card daily spend reset failed: " + e.getMessage());
+        } finally {
+            resetRunning.set(false);
         }
     }
 
+    @EventListener(ApplicationReadyEvent.class)
+    public void resetOnStartup() {
+        new Thread(this::resetDailySpending, "card-limit-reset").start();
+    }
+
+    public Map<String, Object> getLimitResetStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("running", resetRunning.get());
+        stats.put("lastRun", lastLimitReset);
+        stats.put("cardsResetTotal", cardsResetTotal.sum());
+        return stats;
+    }
+
     // Change daily limit
     public boolean changeDailyLimit(String cardNumber, double newLimit) {
         Optional<DebitCard> card = debitCardRepository.findByCardNumber(cardNumber);
@@ -139,6 +210,7 @@ public class DebitCardService {
         DebitCard cardObj = card.get();
         cardObj.setDailyLimit(newLimit);
         debitCardRepository.save(cardObj);
+        cardAuthorizationService.refresh(cardObj);
         return true;
     }
 
@@ -150,6 +222,7 @@ public class DebitCardService {
         DebitCard c = card.get();
         c.setOnlineTransactionsEnabled(!c.isOnlineTransactionsEnabled());
         debitCardRepository.save(c);
+        cardAuthorizationService.refresh(c);
         return true;
     }
 
@@ -171,10 +244,18 @@ public class DebitCardService {
         return true;
     }
 
-    // Admin: Get Pending Requests
-    public List<DebitCard> getPendingRequests() {
-        return debitCardRepository.findAll().stream().filter(c -> "PENDING".equals(c.getStatus()))
-                .collect(java.util.stream.Collectors.toList());
+    // Admin: One page of pending card requests, oldest first
+    public Map<String, Object> getPendingRequests(int page, int size) {
+        org.springframework.data.domain.Page<DebitCard> result = debitCardRepository
+                .findByStatusOrderByIssuedDateAscIdAsc("PENDING", org.springframework.data.domain.PageRequest
+                        .of(Math.max(0, page), Math.max(1, Math.min(size, MAX_PAGE_SIZE))));
+        Map<String, Object> response = new HashMap<>();
+        response.put("requests", result.getContent());
+        response.put("page", result.getNumber());
+        response.put("size", result.getSize());
+        response.put("totalElements", result.getTotalElements());
+        response.put("totalPages", result.getTotalPages());
+        return response;
     }
 
     // Admin: Approve Card
@@ -185,6 +266,8 @@ public class DebitCardService {
         DebitCard c = opt.get();
         c.setStatus("ACTIVE");
         debitCardRepository.save(c);
+        cardAuthorizationService.refresh(c);
+        pendingCountService.invalidate();
         // Send email now? Or assumed sent on creation? Best to send "Approved" email.
         return true;
     }
@@ -197,26 +280,18 @@ public class DebitCardService {
         DebitCard c = opt.get();
         c.setStatus("REJECTED");
         debitCardRepository.save(c);
+        cardAuthorizationService.refresh(c);
+        pendingCountService.invalidate();
         return true;
     }
 
-    // Analytics: Daily Card Requests (issued date)
+    // Analytics: Daily Card Requests (issued date), from the daily_rollup table
     public java.util.List<java.util.Map<String, Object>> getCardRequestStats() {
-        java.time.LocalDateTime thirtyDaysAgo = java.time.LocalDateTime.now().minusDays(30);
-        List<DebitCard> allCards = debitCardRepository.findAll();
-
-        java.util.Map<java.time.LocalDate, Long> dailyRequests = allCards.stream()
-                .filter(c -> c.getIssuedDate() != null && c.getIssuedDate().isAfter(thirtyDaysAgo))
-                .collect(java.util.stream.Collectors.groupingBy(
-                        c -> c.getIssuedDate().toLocalDate(),
-                        java.util.stream.Collectors.counting()));
-
         java.util.List<java.util.Map<String, Object>> result = new java.util.ArrayList<>();
-        for (int i = 29; i >= 0; i--) {
-            java.time.LocalDate d = java.time.LocalDate.now().minusDays(i);
+        for (org.example.bankingsystem.model.DailyRollup d : dailyRollupService.getLastDays(30)) {
             java.util.Map<String, Object> point = new java.util.HashMap<>();
-            point.put("date", d.toString());
-            point.put("requests", dailyRequests.getOrDefault(d, 0L));
+            point.put("date", d.getRollupDate().toString());
+            point.put("requests", d.getCardRequests());
             result.add(point);
         }
         return result;
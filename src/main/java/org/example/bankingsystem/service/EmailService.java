@@ -5,10 +5,17 @@ import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import java.time.LocalDateTime;
 
+/**
+ * Outgoing mail. Called inside a transaction, a message is sent only once the transaction
+ * commits: SMTP time is not spent holding the rows the transaction locked, and nothing is
+ * sent for a change that rolls back.
+ */
 @Service
 public class EmailService {
 
@@ -21,6 +28,10 @@ public class EmailService {
      * Send plain text email
      */
     public void sendEmail(String to, String subject, String text) {
+        afterCommit(() -> sendEmailNow(to, subject, text));
+    }
+
+    private void sendEmailNow(String to, String subject, String text) {
         try {
             if (to == null || to.isEmpty()) {
                 System.out.println("❌ Email address is null or empty!");
@@ -46,7 +57,7 @@ public class EmailService {
      * Send HTML email (for better formatting) - wrapper for internal method
      */
     public void sendHtmlEmail(String to, String subject, String htmlContent) {
-        sendHtmlEmailInternal(to, subject, htmlContent);
+        afterCommit(() -> sendHtmlEmailInternal(to, subject, htmlContent));
     }
 
     /**
@@ -104,6 +115,10 @@ public class EmailService {
                 "</body>" +
                 "</html>";
 
+        afterCommit(() -> sendWithRetry(to, subject, htmlContent));
+    }
+
+    private void sendWithRetry(String to, String subject, String htmlContent) {
         // Retry logic
         int maxRetries = 3;
         boolean sent = false;
@@ -232,6 +247,11 @@ public class EmailService {
     // Send email with attachment
     public void sendEmailWithAttachment(String to, String subject, String text, byte[] attachmentData,
             String attachmentName) {
+        afterCommit(() -> sendEmailWithAttachmentNow(to, subject, text, attachmentData, attachmentName));
+    }
+
+    private void sendEmailWithAttachmentNow(String to, String subject, String text, byte[] attachmentData,
+            String attachmentName) {
         try {
             if (to == null || to.isEmpty()) {
                 System.out.println("❌ Email address is null or empty!");
@@ -263,4 +283,19 @@ public class EmailService {
             ex.printStackTrace();
         }
     }
+
+    // Runs the send after the current transaction commits, or right away outside one. A failure
+    // of a deferred send (an OTP that could not be sent) still reaches the caller.
+    private void afterCommit(Runnable send) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                send.run();
+            }
+        });
+    }
 }
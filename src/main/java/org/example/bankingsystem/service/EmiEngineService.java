@@ -0,0 +1,294 @@
+package org.example.bankingsystem.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.bankingsystem.event.TransactionPostedEvent;
+import org.example.bankingsystem.model.EmiRun;
+import org.example.bankingsystem.model.EmiRunOutcome;
+import org.example.bankingsystem.model.Loan;
+import org.example.bankingsystem.model.PendingEmi;
+import org.example.bankingsystem.model.Transaction;
+import org.example.bankingsystem.repository.EmiRunOutcomeRepository;
+import org.example.bankingsystem.repository.EmiRunRepository;
+import org.example.bankingsystem.repository.LoanRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Daily EMI auto-debit. A run selects ACTIVE loans due on or before its date in id-ordered
+ * keyset chunks; each chunk is split by account number across a fixed set of workers, so
+ * no two workers ever debit the same account. Every loan gets an EmiRunOutcome row written
+ * in the same transaction as its debit, and the run's lastLoanId checkpoint advances after
+ * each chunk, so a run interrupted by a crash or restart resumes where it stopped without
+ * debiting any loan twice.
+ *
+ * EMIs that bounce for lack of balance are queued by PendingEmiService and retried here,
+ * one account at a time on a single thread, as soon as a deposit or incoming transfer to
+ * that account commits.
+ */
+@Service
+public class EmiEngineService {
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private EmiRunRepository emiRunRepository;
+
+    @Autowired
+    private EmiRunOutcomeRepository emiRunOutcomeRepository;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private PendingEmiService pendingEmiService;
+
+    @Value("${bank.emi.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${bank.emi.workers:4}")
+    private int workers;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final ExecutorService retryExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "emi-retry");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @PreDestroy
+    public void shutdown() {
+        retryExecutor.shutdownNow();
+    }
+
+    @Scheduled(cron = "${bank.emi.cron:0 0 3 * * *}")
+    public void scheduledRun() {
+        try {
+            EmiRun run = run(LocalDate.now());
+            if (run != null) {
+                System.out.println("EMI run " + run.getRunDate() + ": " + run.getStatus() + ", " + run.getSucceeded()
+                        + " paid, " + run.getInsufficientFunds() + " insufficient funds, " + run.getFailed()
+                        + " failed");
+            }
+        } catch (Exception e) {
+            System.out.println("❌ EMI run failed: " + e.getMessage());
+        }
+    }
+
+    // A credit to an account with bounced EMIs triggers their retry, off the posting thread
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        Transaction t = event.getTransaction();
+        if (("DEPOSIT".equals(t.getType()) || "TRANSFER_IN".equals(t.getType()))
+                && pendingEmiService.mayHavePending(t.getAccountNumber())) {
+            retryExecutor.execute(() -> retryPending(t.getAccountNumber()));
+        }
+    }
+
+    // Retries the account's queued EMIs oldest installment first; returns how many were paid
+    public int retryPending(String accountNumber) {
+        int paid = 0;
+        try {
+            for (PendingEmi pending : pendingEmiService.getPending(accountNumber)) {
+                if ("PAID".equals(loanService.retryPendingEmi(pending.getId()))) {
+                    paid++;
+                }
+            }
+            pendingEmiService.forgetIfIdle(accountNumber);
+        } catch (Exception e) {
+            System.out.println("❌ EMI retry failed for account " + accountNumber + ": " + e.getMessage());
+        }
+        return paid;
+    }
+
+    // Runs left RUNNING by a previous process are resumed from their checkpoint
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRuns() {
+        List<EmiRun> interrupted = emiRunRepository.findByStatus("RUNNING");
+        if (interrupted.isEmpty()) {
+            return;
+        }
+        new Thread(() -> {
+            for (EmiRun run : interrupted) {
+                System.out.println("Resuming EMI run " + run.getRunDate() + " after loan id " + run.getLastLoanId());
+                run(run.getRunDate());
+            }
+        }, "emi-run-resume").start();
+    }
+
+    // Starts (or resumes) the run for runDate in the background; false if a run is in progress
+    public boolean startRun(LocalDate runDate) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        new Thread(() -> {
+            try {
+                doRun(runDate);
+            } catch (Exception e) {
+                System.out.println("❌ EMI run failed: " + e.getMessage());
+            } finally {
+                running.set(false);
+            }
+        }, "emi-run").start();
+        return true;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public List<EmiRun> getRecentRuns() {
+        return emiRunRepository.findTop30ByOrderByRunDateDesc();
+    }
+
+    public Map<String, Object> getOutcomes(Long runId, String status, int page, int size) {
+        if (!emiRunRepository.existsById(runId)) {
+            throw new IllegalArgumentException("EMI run not found");
+        }
+        PageRequest request = PageRequest.of(Math.max(0, page), Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        Page<EmiRunOutcome> result = status == null || status.isBlank()
+                ? emiRunOutcomeRepository.findByRunIdOrderByIdAsc(runId, request)
+                : emiRunOutcomeRepository.findByRunIdAndStatusOrderByIdAsc(runId, status.trim().toUpperCase(), request);
+        Map<String, Object> response = new HashMap<>();
+        response.put("outcomes", result.getContent());
+        response.put("page", result.getNumber());
+        response.put("size", request.getPageSize());
+        response.put("totalElements", result.getTotalElements());
+        response.put("totalPages", result.getTotalPages());
+        return response;
+    }
+
+    // Runs (or resumes) the run for runDate; returns null if another run is in progress
+    public EmiRun run(LocalDate runDate) {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            return doRun(runDate);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // The run itself; the caller holds `running`
+    private EmiRun doRun(LocalDate runDate) {
+        EmiRun run = emiRunRepository.findByRunDate(runDate).orElseGet(() -> new EmiRun(runDate));
+        if ("COMPLETED".equals(run.getStatus())) {
+            return run;
+        }
+        run.setStatus("RUNNING");
+        run.setMessage(null);
+        run = emiRunRepository.save(run);
+
+        int workerCount = Math.max(1, workers);
+        ExecutorService pool = Executors.newFixedThreadPool(workerCount);
+        try {
+            while (true) {
+                List<Loan> chunk = loanRepository.findByStatusAndNextDueDateLessThanEqualAndIdGreaterThanOrderByIdAsc(
+                        "ACTIVE", runDate, run.getLastLoanId(), PageRequest.of(0, Math.max(1, chunkSize)));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                long[] counts = processChunk(pool, workerCount, run.getId(), runDate, chunk);
+                run.setProcessed(run.getProcessed() + counts[0]);
+                run.setSucceeded(run.getSucceeded() + counts[1]);
+                run.setInsufficientFunds(run.getInsufficientFunds() + counts[2]);
+                run.setFailed(run.getFailed() + counts[3]);
+                run.setLastLoanId(chunk.get(chunk.size() - 1).getId());
+                run = emiRunRepository.save(run);
+            }
+            run.setStatus("COMPLETED");
+        } catch (Exception e) {
+            run.setStatus("FAILED");
+            run.setMessage(e.getMessage());
+        } finally {
+            pool.shutdownNow();
+        }
+        run.setFinishedAt(LocalDateTime.now());
+        return emiRunRepository.save(run);
+    }
+
+    // Processes one chunk; returns {processed, paid, insufficient funds, failed}
+    private long[] processChunk(ExecutorService pool, int workerCount, Long runId, LocalDate runDate,
+            List<Loan> chunk) throws Exception {
+        List<List<Loan>> partitions = new ArrayList<>();
+        for (int i = 0; i < workerCount; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (Loan loan : chunk) {
+            String account = loan.getAccountNumber() == null ? "" : loan.getAccountNumber();
+            partitions.get(Math.floorMod(account.hashCode(), workerCount)).add(loan);
+        }
+
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (List<Loan> partition : partitions) {
+            if (!partition.isEmpty()) {
+                futures.add(pool.submit(() -> processPartition(runId, runDate, partition)));
+            }
+        }
+        long[] totals = new long[4];
+        for (Future<long[]> future : futures) {
+            long[] counts = future.get();
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] += counts[i];
+            }
+        }
+        return totals;
+    }
+
+    private long[] processPartition(Long runId, LocalDate runDate, List<Loan> loans) {
+        long[] counts = new long[4];
+        for (Loan loan : loans) {
+            EmiRunOutcome outcome;
+            try {
+                outcome = loanService.collectDueEmi(runId, loan.getId(), runDate);
+            } catch (Exception e) {
+                // The debit rolled back; record the failure on its own
+                outcome = recordFailure(runId, loan, e);
+            }
+            if (outcome == null) {
+                continue; // handled before the run was interrupted
+            }
+            counts[0]++;
+            switch (outcome.getStatus()) {
+                case "PAID" -> counts[1]++;
+                case "INSUFFICIENT_FUNDS" -> counts[2]++;
+                case "FAILED" -> counts[3]++;
+                default -> {
+                }
+            }
+        }
+        return counts;
+    }
+
+    private EmiRunOutcome recordFailure(Long runId, Loan loan, Exception e) {
+        try {
+            return emiRunOutcomeRepository.save(new EmiRunOutcome(runId, loan.getId(), loan.getAccountNumber(),
+                    "FAILED", loan.getMonthlyEmi(), e.getMessage()));
+        } catch (Exception ignored) {
+            System.out.println("❌ EMI auto-debit failed for loan " + loan.getLoanId() + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
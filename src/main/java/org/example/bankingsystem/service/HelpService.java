@@ -3,34 +3,57 @@ package org.example.bankingsystem.service;
 import org.example.bankingsystem.model.HelpRequest;
 import org.example.bankingsystem.repository.HelpRequestRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class HelpService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private HelpRequestRepository helpRequestRepository;
 
+    @Autowired
+    private PendingCountService pendingCountService;
+
     public HelpRequest createRequest(String accountNumber, String requestType, String message, String transactionId) {
         HelpRequest request = new HelpRequest(accountNumber, requestType, message, transactionId);
-        return helpRequestRepository.save(request);
+        HelpRequest saved = helpRequestRepository.save(request);
+        pendingCountService.invalidate();
+        return saved;
     }
 
     public List<HelpRequest> getRequests(String accountNumber) {
         return helpRequestRepository.findByAccountNumber(accountNumber);
     }
 
-    public List<HelpRequest> getAllRequests() {
-        return helpRequestRepository.findAll(org.springframework.data.domain.Sort
-                .by(org.springframework.data.domain.Sort.Direction.DESC, "createdAt"));
+    // Admin: One page of requests (optionally of one status), newest first
+    public Map<String, Object> getAllRequests(String status, int page, int size) {
+        PageRequest request = PageRequest.of(Math.max(0, page), Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        Page<HelpRequest> result = status == null || status.isBlank()
+                ? helpRequestRepository.findAllByOrderByCreatedAtDescIdDesc(request)
+                : helpRequestRepository.findByStatusOrderByCreatedAtDescIdDesc(status.trim().toUpperCase(), request);
+        Map<String, Object> response = new HashMap<>();
+        response.put("requests", result.getContent());
+        response.put("page", result.getNumber());
+        response.put("size", result.getSize());
+        response.put("totalElements", result.getTotalElements());
+        response.put("totalPages", result.getTotalPages());
+        return response;
     }
 
     public HelpRequest updateRequestStatus(Long id, String status) {
         HelpRequest request = helpRequestRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Request not found"));
         request.setStatus(status);
-        return helpRequestRepository.save(request);
+        HelpRequest saved = helpRequestRepository.save(request);
+        pendingCountService.invalidate();
+        return saved;
     }
 }
@@ -0,0 +1,340 @@
+package org.example.bankingsystem.service;
+
+import org.example.bankingsystem.event.TransactionPostedEvent;
+import org.example.bankingsystem.model.Transaction;
+import org.example.bankingsystem.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Daily interest on savings balances. Every active account accrues balance x rate / 365 per
+ * day into account.accrued_interest; on the credit day of the month the whole paise of the
+ * accrued amount are moved into the balance with one INTEREST_CREDIT posting per account.
+ *
+ * Accounts are read in account-number keyset pages on one thread and each page is handed to
+ * a worker pool that writes it with batched JDBC statements, so reading the next page
+ * overlaps with writing the previous ones. Accrual is keyed on last_accrual_date and so is
+ * idempotent per day: a run that hits its time window stops taking new pages, and the
+ * accounts it did not reach catch up (accruing for every missed day) on the next run.
+ */
+@Service
+public class InterestAccrualService {
+
+    private static final String ACCRUE_PAGE_SQL = "SELECT account_number, balance, accrued_interest, "
+            + "last_accrual_date FROM account WHERE active = TRUE AND account_number > ? "
+            + "AND (last_accrual_date IS NULL OR last_accrual_date < ?) ORDER BY account_number LIMIT ?";
+    private static final String CREDIT_PAGE_SQL = "SELECT account_number, balance, accrued_interest, "
+            + "last_accrual_date FROM account WHERE active = TRUE AND account_number > ? "
+            + "AND accrued_interest >= ? ORDER BY account_number LIMIT ?";
+    private static final String ACCRUE_SQL = "UPDATE account SET accrued_interest = accrued_interest + ?, "
+            + "last_accrual_date = ? WHERE account_number = ? AND (last_accrual_date IS NULL OR last_accrual_date < ?)";
+    private static final String CREDIT_SQL = "UPDATE account SET balance = balance + ?, "
+            + "accrued_interest = accrued_interest - ? WHERE account_number = ?";
+    private static final String INSERT_TXN_SQL = "INSERT INTO `transaction` (account_number, type, amount, "
+            + "balance_after, date, transaction_id, description) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final double MIN_CREDIT = 0.01;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionRepository transactionRepo;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Percent per annum on positive balances
+    @Value("${bank.interest.annual-rate:3.5}")
+    private double annualRate;
+
+    @Value("${bank.interest.page-size:1000}")
+    private int pageSize;
+
+    @Value("${bank.interest.workers:4}")
+    private int workers;
+
+    // Day of the month accrued interest is credited
+    @Value("${bank.interest.credit-day:1}")
+    private int creditDay;
+
+    // A run stops taking new pages after this long; the rest catch up on the next run
+    @Value("${bank.interest.window-minutes:60}")
+    private long windowMinutes;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile Map<String, Object> lastRun;
+
+    @Scheduled(cron = "${bank.interest.cron:0 0 1 * * *}")
+    public void scheduledRun() {
+        try {
+            Map<String, Object> summary = run(LocalDate.now());
+            if (summary != null) {
+                System.out.println("Interest run: " + summary);
+            }
+        } catch (Exception e) {
+            System.out.println("❌ Interest run failed: " + e.getMessage());
+        }
+    }
+
+    // Starts the run for a day in the background; false if a run is in progress
+    public boolean startRun(LocalDate day) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        new Thread(() -> {
+            try {
+                doRun(day);
+            } catch (Exception e) {
+                System.out.println("❌ Interest run failed: " + e.getMessage());
+            } finally {
+                running.set(false);
+            }
+        }, "interest-run").start();
+        return true;
+    }
+
+    public Map<String, Object> getLastRun() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("running", running.get());
+        result.put("lastRun", lastRun);
+        return result;
+    }
+
+    // Accrues interest for `day` (and credits it on the credit day); null if a run is in progress
+    public Map<String, Object> run(LocalDate day) throws Exception {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            return doRun(day);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // The run itself; the caller holds `running`
+    private Map<String, Object> doRun(LocalDate day) throws Exception {
+        long started = System.currentTimeMillis();
+        long deadline = started + windowMinutes * 60_000;
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("date", day);
+        summary.put("startedAt", LocalDateTime.now());
+
+        Result accrued = processPages(ACCRUE_PAGE_SQL, Date.valueOf(day), deadline, page -> accruePage(page, day));
+        summary.put("accrued", accrued.accounts);
+        boolean complete = accrued.complete;
+        if (day.getDayOfMonth() == creditDay) {
+            Result credited = processPages(CREDIT_PAGE_SQL, MIN_CREDIT, deadline, this::creditPage);
+            summary.put("credited", credited.accounts);
+            complete = complete && credited.complete;
+        }
+        summary.put("complete", complete);
+        summary.put("durationMs", System.currentTimeMillis() - started);
+        lastRun = summary;
+        return summary;
+    }
+
+    // Reads keyset pages on this thread and writes them on the worker pool
+    private Result processPages(String pageSql, Object filter, long deadline, PageWriter writer) throws Exception {
+        int workerCount = Math.max(1, workers);
+        int limit = Math.max(1, pageSize);
+        ExecutorService pool = Executors.newFixedThreadPool(workerCount);
+        // Bounds the pages read ahead of the writers
+        Semaphore inFlight = new Semaphore(workerCount * 2);
+        List<Future<Integer>> futures = new ArrayList<>();
+        Result result = new Result();
+        try {
+            String after = "";
+            while (true) {
+                if (System.currentTimeMillis() > deadline) {
+                    result.complete = false;
+                    break;
+                }
+                Page page = readPage(pageSql, after, filter, limit);
+                if (page.size == 0) {
+                    break;
+                }
+                after = page.accounts[page.size - 1];
+                inFlight.acquire();
+                futures.add(pool.submit(() -> {
+                    try {
+                        return writer.write(page);
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+                if (page.size < limit) {
+                    break;
+                }
+            }
+            for (Future<Integer> future : futures) {
+                result.accounts += future.get();
+            }
+            return result;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Page readPage(String sql, String after, Object filter, int limit) {
+        Page page = new Page(limit);
+        jdbcTemplate.query(sql, rs -> {
+            int i = page.size++;
+            page.accounts[i] = rs.getString("account_number");
+            page.balances[i] = rs.getDouble("balance");
+            page.accrued[i] = rs.getDouble("accrued_interest");
+            Date last = rs.getDate("last_accrual_date");
+            page.lastAccrual[i] = last != null ? last.toLocalDate() : null;
+        }, after, filter, limit);
+        return page;
+    }
+
+    // One batched UPDATE for the page; a new account (never accrued) earns one day
+    private int accruePage(Page page, LocalDate day) {
+        double dailyRate = annualRate / 100 / 365;
+        double[] interest = new double[page.size];
+        for (int i = 0; i < page.size; i++) {
+            LocalDate last = page.lastAccrual[i];
+            long days = last == null ? 1 : day.toEpochDay() - last.toEpochDay();
+            interest[i] = page.balances[i] > 0 && days > 0 ? page.balances[i] * dailyRate * days : 0;
+        }
+        Date dayValue = Date.valueOf(day);
+        jdbcTemplate.batchUpdate(ACCRUE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setDouble(1, interest[i]);
+                ps.setDate(2, dayValue);
+                ps.setString(3, page.accounts[i]);
+                ps.setDate(4, dayValue);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return page.size;
+            }
+        });
+        return page.size;
+    }
+
+    /**
+     * Credits the whole paise of each account's accrued interest in one database transaction
+     * per page: a batched balance UPDATE, a re-read of the (now row-locked) balances for
+     * balance_after, and a batched INSERT of the postings, which are then published like any
+     * other posting so statistics, rollups and indexes pick them up.
+     */
+    private int creditPage(Page page) {
+        double[] credit = new double[page.size];
+        for (int i = 0; i < page.size; i++) {
+            credit[i] = Math.floor(page.accrued[i] * 100) / 100;
+        }
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        return tx.execute(status -> {
+            jdbcTemplate.batchUpdate(CREDIT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    ps.setDouble(1, credit[i]);
+                    ps.setDouble(2, credit[i]);
+                    ps.setString(3, page.accounts[i]);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return page.size;
+                }
+            });
+
+            Map<String, Double> balances = new HashMap<>();
+            String placeholders = String.join(", ", Collections.nCopies(page.size, "?"));
+            jdbcTemplate.query("SELECT account_number, balance FROM account WHERE account_number IN (" + placeholders
+                    + ")", rs -> {
+                        balances.put(rs.getString("account_number"), rs.getDouble("balance"));
+                    }, (Object[]) Arrays.copyOf(page.accounts, page.size));
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            String description = "Interest credit @ " + annualRate + "% p.a.";
+            GeneratedKeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_TXN_SQL, new String[] { "id" }),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            ps.setString(1, page.accounts[i]);
+                            ps.setString(2, "INTEREST_CREDIT");
+                            ps.setDouble(3, credit[i]);
+                            ps.setDouble(4, balances.getOrDefault(page.accounts[i], page.balances[i] + credit[i]));
+                            ps.setTimestamp(5, now);
+                            ps.setString(6, "INT" + System.currentTimeMillis());
+                            ps.setString(7, description);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return page.size;
+                        }
+                    }, keys);
+
+            List<Long> ids = new ArrayList<>();
+            for (Map<String, Object> key : keys.getKeyList()) {
+                ids.add(((Number) key.values().iterator().next()).longValue());
+            }
+            for (Transaction t : transactionRepo.findAllById(ids)) {
+                eventPublisher.publishEvent(new TransactionPostedEvent(t));
+            }
+            return page.size;
+        });
+    }
+
+    @FunctionalInterface
+    private interface PageWriter {
+        int write(Page page) throws Exception;
+    }
+
+    // One keyset page of accounts, column by column
+    private static final class Page {
+        private final String[] accounts;
+        private final double[] balances;
+        private final double[] accrued;
+        private final LocalDate[] lastAccrual;
+        private int size;
+
+        private Page(int capacity) {
+            accounts = new String[capacity];
+            balances = new double[capacity];
+            accrued = new double[capacity];
+            lastAccrual = new LocalDate[capacity];
+        }
+    }
+
+    private static final class Result {
+        private long accounts;
+        private boolean complete = true;
+    }
+}
@@ -0,0 +1,164 @@
+package org.example.bankingsystem.service;
+
+import org.example.bankingsystem.event.TransactionPostedEvent;
+import org.example.bankingsystem.model.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process operational counters for the admin dashboard. Every committed posting bumps
+ * a per-type counter and a per-minute ring buffer (last hour); once a second the deltas
+ * are pushed to subscribed Server-Sent-Events clients. Nothing here reads the database,
+ * and the figures start from zero when the application starts.
+ */
+@Service
+public class LiveMetricsService {
+
+    private static final int RING_MINUTES = 60;
+
+    @Value("${bank.admin.live.timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    private final Map<String, TypeCounter> counters = new ConcurrentHashMap<>();
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    // Totals at the previous tick, only touched by the scheduler thread
+    private final Map<String, long[]> lastCounts = new HashMap<>();
+    private final Map<String, double[]> lastAmounts = new HashMap<>();
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        Transaction t = event.getTransaction();
+        record(t.getType(), t.getAmount());
+    }
+
+    public void record(String type, double amount) {
+        counters.computeIfAbsent(type == null ? "UNKNOWN" : type, k -> new TypeCounter()).add(amount,
+                System.currentTimeMillis() / 60_000);
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+        emitters.add(emitter);
+        return emitter;
+    }
+
+    // Totals since start plus the per-minute series of the last hour, per type
+    public Map<String, Object> snapshot() {
+        long nowMinute = System.currentTimeMillis() / 60_000;
+        Map<String, Object> types = new TreeMap<>();
+        for (Map.Entry<String, TypeCounter> e : counters.entrySet()) {
+            TypeCounter c = e.getValue();
+            Map<String, Object> m = new HashMap<>();
+            m.put("count", c.count.sum());
+            m.put("amount", c.amount.sum());
+            m.put("lastHour", c.minuteSeries(nowMinute));
+            types.put(e.getKey(), m);
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("timestamp", System.currentTimeMillis());
+        result.put("types", types);
+        return result;
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void pushDeltas() {
+        Map<String, Object> deltas = new TreeMap<>();
+        for (Map.Entry<String, TypeCounter> e : counters.entrySet()) {
+            long count = e.getValue().count.sum();
+            double amount = e.getValue().amount.sum();
+            long[] prevCount = lastCounts.computeIfAbsent(e.getKey(), k -> new long[1]);
+            double[] prevAmount = lastAmounts.computeIfAbsent(e.getKey(), k -> new double[1]);
+            if (count != prevCount[0]) {
+                Map<String, Object> d = new HashMap<>();
+                d.put("count", count - prevCount[0]);
+                d.put("amount", amount - prevAmount[0]);
+                d.put("totalCount", count);
+                d.put("totalAmount", amount);
+                deltas.put(e.getKey(), d);
+            }
+            prevCount[0] = count;
+            prevAmount[0] = amount;
+        }
+        if (emitters.isEmpty()) {
+            return;
+        }
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("timestamp", System.currentTimeMillis());
+        payload.put("deltas", deltas);
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().name("metrics").data(payload));
+            } catch (Exception e) {
+                emitters.remove(emitter);
+            }
+        }
+    }
+
+    private static final class TypeCounter {
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder amount = new DoubleAdder();
+        private final MinuteBucket[] ring = new MinuteBucket[RING_MINUTES];
+
+        private TypeCounter() {
+            for (int i = 0; i < RING_MINUTES; i++) {
+                ring[i] = new MinuteBucket();
+            }
+        }
+
+        private void add(double value, long minute) {
+            count.increment();
+            amount.add(value);
+            MinuteBucket bucket = ring[(int) (minute % RING_MINUTES)];
+            if (bucket.minute != minute) {
+                synchronized (bucket) {
+                    // Slot still holds a minute from an hour (or more) ago: recycle it
+                    if (bucket.minute != minute) {
+                        bucket.count.reset();
+                        bucket.amount.reset();
+                        bucket.minute = minute;
+                    }
+                }
+            }
+            bucket.count.increment();
+            bucket.amount.add(value);
+        }
+
+        private List<Map<String, Object>> minuteSeries(long nowMinute) {
+            List<Map<String, Object>> series = new ArrayList<>();
+            for (long m = nowMinute - RING_MINUTES + 1; m <= nowMinute; m++) {
+                MinuteBucket bucket = ring[(int) (m % RING_MINUTES)];
+                if (bucket.minute == m) {
+                    Map<String, Object> point = new HashMap<>();
+                    point.put("minute", m * 60_000);
+                    point.put("count", bucket.count.sum());
+                    point.put("amount", bucket.amount.sum());
+                    series.add(point);
+                }
+            }
+            return series;
+        }
+    }
+
+    private static final class MinuteBucket {
+        private volatile long minute = -1;
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder amount = new DoubleAdder();
+    }
+}
@@ -0,0 +1,255 @@
+package org.example.bankingsystem.service;
+
+import org.example.bankingsystem.event.LoanChangedEvent;
+import org.example.bankingsystem.repository.LoanInstallmentRepository;
+import org.example.bankingsystem.repository.LoanRepository;
+import org.example.bankingsystem.repository.projection.LoanPortfolioTotal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loan book aggregates for the admin portfolio view: counts, principal and outstanding
+ * principal by status and by interest-rate tier, and active loans by days past due.
+ * They are rebuilt from one GROUP BY over loan at startup and nightly, and kept current in
+ * between from committed LoanChangedEvents, so a read never scans loans. Active loans are
+ * held per next due date, so DPD buckets are cut at read time and age without any writes.
+ *
+ * A change that commits while a rebuild is running may be counted twice or not at all
+ * until the next rebuild.
+ */
+@Service
+public class LoanPortfolioService {
+
+    // Lower bound (days past due) of each delinquency bucket; CURRENT is not yet due
+    private static final int[] DPD_BOUNDS = { 1, 31, 61, 91 };
+    private static final String[] DPD_LABELS = { "CURRENT", "DPD_1_30", "DPD_31_60", "DPD_61_90", "DPD_90_PLUS" };
+    private static final LocalDate EARLIEST = LocalDate.of(1970, 1, 1);
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private LoanInstallmentRepository installmentRepository;
+
+    private final Object lock = new Object();
+    private Map<String, Totals> byStatus = new HashMap<>();
+    private TreeMap<Double, Totals> activeByRate = new TreeMap<>();
+    private TreeMap<LocalDate, Totals> activeByDueDate = new TreeMap<>();
+    private volatile boolean ready;
+    private volatile CachedView cached;
+    // Bumped on every change, so a view built concurrently with a change is not served after it
+    private final AtomicLong version = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        new Thread(this::rebuildQuietly, "loan-portfolio-build").start();
+    }
+
+    // Reconciles the incremental aggregates with the loan table
+    @Scheduled(cron = "${bank.loans.portfolio.rebuild-cron:0 30 3 * * *}")
+    public void rebuildQuietly() {
+        try {
+            long started = System.currentTimeMillis();
+            rebuild();
+            System.out.println("Loan portfolio aggregates rebuilt in " + (System.currentTimeMillis() - started) + " ms");
+        } catch (Exception e) {
+            System.out.println("❌ Loan portfolio rebuild failed: " + e.getMessage());
+        }
+    }
+
+    public void rebuild() {
+        Map<String, Totals> statuses = new HashMap<>();
+        TreeMap<Double, Totals> rates = new TreeMap<>();
+        TreeMap<LocalDate, Totals> dueDates = new TreeMap<>();
+        for (LoanPortfolioTotal row : loanRepository.portfolioTotals()) {
+            long count = row.getLoanCount() != null ? row.getLoanCount() : 0;
+            double principal = row.getPrincipal() != null ? row.getPrincipal() : 0;
+            double outstanding = row.getOutstanding() != null ? row.getOutstanding() : 0;
+            statuses.computeIfAbsent(row.getStatus(), k -> new Totals()).add(count, principal, outstanding);
+            if ("ACTIVE".equals(row.getStatus())) {
+                double rate = row.getRate() != null ? row.getRate() : 0;
+                rates.computeIfAbsent(rate, k -> new Totals()).add(count, principal, outstanding);
+                dueDates.computeIfAbsent(dueKey(row.getDueDate()), k -> new Totals()).add(count, principal, outstanding);
+            }
+        }
+        synchronized (lock) {
+            byStatus = statuses;
+            activeByRate = rates;
+            activeByDueDate = dueDates;
+            ready = true;
+        }
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLoanChanged(LoanChangedEvent event) {
+        synchronized (lock) {
+            if (event.getBefore() != null) {
+                apply(event.getBefore(), -1);
+            }
+            apply(event.getAfter(), 1);
+        }
+        version.incrementAndGet();
+    }
+
+    // Caller holds the lock
+    private void apply(LoanChangedEvent.State state, int sign) {
+        long count = sign;
+        double principal = sign * state.getLoanAmount();
+        double outstanding = sign * state.getOutstandingPrincipal();
+        byStatus.computeIfAbsent(state.getStatus(), k -> new Totals()).add(count, principal, outstanding);
+        if ("ACTIVE".equals(state.getStatus())) {
+            activeByRate.computeIfAbsent(state.getRateOfInterest(), k -> new Totals()).add(count, principal, outstanding);
+            LocalDate due = dueKey(state.getNextDueDate());
+            Totals totals = activeByDueDate.computeIfAbsent(due, k -> new Totals());
+            totals.add(count, principal, outstanding);
+            // Due dates roll forward with every EMI; drop the ones no loan is waiting on
+            if (totals.count == 0) {
+                activeByDueDate.remove(due);
+            }
+        }
+    }
+
+    // Active loans without a due date (should not happen) are treated as current
+    private static LocalDate dueKey(LocalDate dueDate) {
+        return dueDate != null ? dueDate : LocalDate.MAX;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Portfolio view: totals by status, active book by rate tier and by DPD bucket, and the
+     * amount of unpaid installments already past due. Cached until the next loan change or
+     * the next day.
+     */
+    public Map<String, Object> getPortfolio() {
+        if (!ready) {
+            throw new IllegalStateException("Loan portfolio aggregates are still being built");
+        }
+        LocalDate today = LocalDate.now();
+        long current = version.get();
+        CachedView view = cached;
+        if (view == null || view.version != current || !view.day.equals(today)) {
+            view = new CachedView(current, today, buildView(today));
+            cached = view;
+        }
+        Map<String, Object> result = new HashMap<>(view.values);
+        result.put("asOf", Instant.ofEpochMilli(view.computedAt).toString());
+        return result;
+    }
+
+    private Map<String, Object> buildView(LocalDate today) {
+        Map<String, Object> statuses = new LinkedHashMap<>();
+        List<Map<String, Object>> rates = new ArrayList<>();
+        Totals[] buckets = new Totals[DPD_LABELS.length];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Totals();
+        }
+        Totals active;
+        synchronized (lock) {
+            for (Map.Entry<String, Totals> e : byStatus.entrySet()) {
+                if (e.getValue().count != 0) {
+                    statuses.put(e.getKey(), e.getValue().toMap());
+                }
+            }
+            for (Map.Entry<Double, Totals> e : activeByRate.descendingMap().entrySet()) {
+                if (e.getValue().count != 0) {
+                    Map<String, Object> row = e.getValue().toMap();
+                    row.put("rateOfInterest", e.getKey());
+                    rates.add(row);
+                }
+            }
+            for (Map.Entry<LocalDate, Totals> e : activeByDueDate.entrySet()) {
+                buckets[dpdBucket(ChronoUnit.DAYS.between(e.getKey(), today))].add(e.getValue());
+            }
+            active = byStatus.getOrDefault("ACTIVE", new Totals()).copy();
+        }
+
+        Map<String, Object> dpd = new LinkedHashMap<>();
+        Totals overdue = new Totals();
+        for (int i = 0; i < buckets.length; i++) {
+            dpd.put(DPD_LABELS[i], buckets[i].toMap());
+            if (i > 0) {
+                overdue.add(buckets[i]);
+            }
+        }
+        Map<String, Object> values = new HashMap<>();
+        values.put("byStatus", statuses);
+        values.put("activeByRate", rates);
+        values.put("activeByDpd", dpd);
+        values.put("outstandingPrincipal", active.outstanding);
+        values.put("overdueLoans", overdue.count);
+        values.put("overdueOutstanding", overdue.outstanding);
+        values.put("overdueInstallmentAmount", installmentRepository.sumDueBetween(EARLIEST, today.minusDays(1)));
+        return values;
+    }
+
+    private static int dpdBucket(long daysPastDue) {
+        int bucket = 0;
+        while (bucket < DPD_BOUNDS.length && daysPastDue >= DPD_BOUNDS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static final class Totals {
+        private long count;
+        private double principal;
+        private double outstanding;
+
+        private void add(long count, double principal, double outstanding) {
+            this.count += count;
+            this.principal += principal;
+            this.outstanding += outstanding;
+        }
+
+        private void add(Totals other) {
+            add(other.count, other.principal, other.outstanding);
+        }
+
+        private Totals copy() {
+            Totals copy = new Totals();
+            copy.add(this);
+            return copy;
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("count", count);
+            map.put("principal", principal);
+            map.put("outstandingPrincipal", outstanding);
+            return map;
+        }
+    }
+
+    private static final class CachedView {
+        private final long version;
+        private final LocalDate day;
+        private final Map<String, Object> values;
+        private final long computedAt = System.currentTimeMillis();
+
+        private CachedView(long version, LocalDate day, Map<String, Object> values) {
+            this.version = version;
+            this.day = day;
+            this.values = values;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package org.example.bankingsystem.service;
+
+import org.example.bankingsystem.model.Loan;
+import org.example.bankingsystem.model.LoanInstallment;
+import org.example.bankingsystem.repository.LoanInstallmentRepository;
+import org.example.bankingsystem.repository.LoanRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Amortization schedules. A loan's installments (due date and principal / interest split)
+ * are computed once at approval and written in a single batched insert, so repayments,
+ * outstanding-principal totals and due-date lookups are indexed reads of loan_installment
+ * rather than per-request EMI arithmetic over every loan. Loan.nextDueDate mirrors the due
+ * date of the first unpaid installment and is what EMI runs select on.
+ */
+@Service
+public class LoanScheduleService {
+
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final String INSERT_SQL = "INSERT INTO loan_installment (loan_id, installment_no, due_date, "
+            + "amount, principal, interest, outstanding_principal, status, paid_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private LoanInstallmentRepository installmentRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Writes the full schedule of a loan: installment i falls due i months after `start`
+     * (never chained month to month, so a loan started on the 31st does not drift).
+     * Interest is flat, matching Loan.monthlyEmi: every installment repays loanAmount / n of
+     * principal (rounded to paise, the last one takes the remainder) and the rest of the EMI
+     * is interest. The first `paidCount` installments are stored as already paid.
+     */
+    public void generateSchedule(Loan loan, LocalDate start, int paidCount) {
+        int n = loan.getDurationMonths();
+        if (n <= 0) {
+            return;
+        }
+        double emi = loan.getMonthlyEmi();
+        long principalPaise = Math.round(loan.getLoanAmount() * 100);
+        long perInstallment = principalPaise / n;
+        LocalDateTime now = LocalDateTime.now();
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                int no = i + 1;
+                long principal = no == n ? principalPaise - perInstallment * (n - 1) : perInstallment;
+                long outstanding = principalPaise - perInstallment * no;
+                if (no == n) {
+                    outstanding = 0;
+                }
+                boolean paid = no <= paidCount;
+                ps.setLong(1, loan.getId());
+                ps.setInt(2, no);
+                ps.setDate(3, Date.valueOf(start.plusMonths(no)));
+                ps.setDouble(4, emi);
+                ps.setDouble(5, principal / 100.0);
+                ps.setDouble(6, emi - principal / 100.0);
+                ps.setDouble(7, outstanding / 100.0);
+                ps.setString(8, paid ? "PAID" : "DUE");
+                ps.setTimestamp(9, paid ? Timestamp.valueOf(now) : null);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return n;
+            }
+        });
+    }
+
+    // Marks an installment paid; returns the due date of the next unpaid one (null if none or no schedule)
+    public LocalDate markPaid(Long loanId, int installmentNo) {
+        installmentRepository.markPaid(loanId, installmentNo, LocalDateTime.now());
+        return installmentRepository.findFirstByLoanIdAndStatusOrderByInstallmentNo(loanId, "DUE")
+                .map(LoanInstallment::getDueDate)
+                .orElse(null);
+    }
+
+    public boolean hasSchedule(Long loanId) {
+        return installmentRepository.existsByLoanId(loanId);
+    }
+
+    public List<LoanInstallment> getSchedule(Long loanId) {
+        return installmentRepository.findByLoanIdOrderByInstallmentNo(loanId);
+    }
+
+    public double getOutstandingPrincipal(Long loanId) {
+        return installmentRepository.sumOutstandingPrincipal(loanId);
+    }
+
+    // Unpaid installments falling due in [from, to] across all loans, with portfolio totals
+    public Map<String, Object> getDueInstallments(LocalDate from, LocalDate to, int page, int size) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        Page<LoanInstallment> result = installmentRepository.findByStatusAndDueDateBetweenOrderByDueDateAscLoanIdAsc(
+                "DUE", from, to, PageRequest.of(Math.max(0, page), Math.max(1, Math.min(size, MAX_PAGE_SIZE))));
+        Map<String, Object> response = new HashMap<>();
+        response.put("installments", result.getContent());
+        response.put("page", result.getNumber());
+        response.put("size", result.getSize());
+        response.put("totalElements", result.getTotalElements());
+        response.put("totalPages", result.getTotalPages());
+        response.put("amountDue", installmentRepository.sumDueBetween(from, to));
+        response.put("outstandingPrincipal", installmentRepository.sumOutstandingPrincipal());
+        return response;
+    }
+
+    // Loans approved before schedules existed get one on first start, with paid EMIs marked paid
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        new Thread(() -> {
+            try {
+                int created = 0;
+                int failed = 0;
+                for (String status : new String[] { "ACTIVE", "CLOSED" }) {
+                    for (Loan loan : loanRepository.findByStatus(status)) {
+                        // One bad loan must not leave every loan after it without a schedule
+                        try {
+                            if (backfill(loan)) {
+                                created++;
+                            }
+                        } catch (Exception e) {
+                            failed++;
+                            System.out.println("❌ Loan schedule backfill failed for loan " + loan.getLoanId() + ": "
+                                    + e.getMessage());
+                        }
+                    }
+                }
+                if (created > 0 || failed > 0) {
+                    System.out.println("Loan schedules backfilled for " + created + " loans, " + failed + " failed");
+                }
+            } catch (Exception e) {
+                System.out.println("❌ Loan schedule backfill failed: " + e.getMessage());
+            }
+        }, "loan-schedule-backfill").start();
+    }
+
+    private boolean backfill(Loan loan) {
+        if (hasSchedule(loan.getId())) {
+            return false;
+        }
+        LocalDate start = loan.getCreatedAt() != null ? loan.getCreatedAt().toLocalDate() : LocalDate.now();
+        generateSchedule(loan, start, loan.getMonthsPaid());
+        return true;
+    }
+}
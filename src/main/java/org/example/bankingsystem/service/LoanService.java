@@ -1,19 +1,31 @@
 package org.example.bankingsystem.service;
 
+import org.example.bankingsystem.event.LoanChangedEvent;
 import org.example.bankingsystem.model.Loan;
 import org.example.bankingsystem.model.Account;
+import org.example.bankingsystem.model.EmiRunOutcome;
+import org.example.bankingsystem.model.PendingEmi;
 import org.example.bankingsystem.model.Transaction;
+import org.example.bankingsystem.repository.EmiRunOutcomeRepository;
 import org.example.bankingsystem.repository.LoanRepository;
 import org.example.bankingsystem.repository.AccountRepository;
-import org.example.bankingsystem.repository.TransactionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class LoanService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private LoanRepository loanRepository;
 
@@ -21,11 +33,26 @@ public class LoanService {
     private AccountRepository accountRepository;
 
     @Autowired
-    private TransactionRepository transactionRepository;
+    private TransactionService transactionService;
 
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private EmiRunOutcomeRepository emiRunOutcomeRepository;
+
+    @Autowired
+    private LoanScheduleService loanScheduleService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PendingEmiService pendingEmiService;
+
+    @Autowired
+    private CardAuthorizationService cardAuthorizationService;
+
     // Loan interest rates based on loan amount
     public double calculateInterestRate(double loanAmount) {
         if (loanAmount <= 50000) {
@@ -47,6 +74,12 @@ public class LoanService {
         return emi;
     }
 
+    // EMI actually charged on a loan: flat interest on the full principal, spread evenly (see Loan)
+    public double calculateFlatEmi(double principal, double rateOfInterest, int months) {
+        double monthlyRate = rateOfInterest / (12 * 100);
+        return (principal + principal * monthlyRate * months) / months;
+    }
+
     // Apply for loan
     public Loan applyForLoan(String accountNumber, double loanAmount, int durationMonths) {
         Optional<Account> account = accountRepository.findById(accountNumber);
@@ -61,6 +94,7 @@ public class LoanService {
 
         // Save loan
         Loan savedLoan = loanRepository.save(loan);
+        eventPublisher.publishEvent(new LoanChangedEvent(null, LoanChangedEvent.State.of(savedLoan)));
 
         // Send email notification (Application Received)
         // Note: You might want to update EmailService to handle "Loan Application
@@ -75,6 +109,7 @@ public class LoanService {
     }
 
     // Approve Loan
+    @Transactional
     public Loan approveLoan(Long id) {
         Optional<Loan> optionalLoan = loanRepository.findById(id);
         if (!optionalLoan.isPresent()) {
@@ -86,11 +121,12 @@ public class LoanService {
             throw new RuntimeException("Loan is not in PENDING status");
         }
 
-        Optional<Account> account = accountRepository.findById(loan.getAccountNumber());
+        Optional<Account> account = accountRepository.findForUpdate(loan.getAccountNumber());
         if (!account.isPresent()) {
             throw new RuntimeException("Account for loan not found");
         }
         Account acc = account.get();
+        LoanChangedEvent.State before = LoanChangedEvent.State.of(loan);
 
         // Disburse loan amount
         acc.setBalance(acc.getBalance() + loan.getLoanAmount());
@@ -100,11 +136,15 @@ public class LoanService {
         Transaction transaction = new Transaction(acc.getAccountNumber(), "LOAN_DISBURSED", loan.getLoanAmount(),
                 acc.getBalance(),
                 "Loan Disbursement");
-        transactionRepository.save(transaction);
+        transactionService.post(transaction);
 
-        // Update Loan Status
+        // Update Loan Status; the first EMI falls due a month after disbursal
+        LocalDate today = LocalDate.now();
         loan.setStatus("ACTIVE");
+        loan.setNextDueDate(today.plusMonths(1));
         Loan savedLoan = loanRepository.save(loan);
+        loanScheduleService.generateSchedule(savedLoan, today, 0);
+        eventPublisher.publishEvent(new LoanChangedEvent(before, LoanChangedEvent.State.of(savedLoan)));
 
         // Send email
         emailService.sendLoanEmail(acc.getEmail(), acc.getAccountNumber(), loan.getLoanAmount(),
@@ -126,8 +166,10 @@ public class LoanService {
             throw new RuntimeException("Loan is not in PENDING status");
         }
 
+        LoanChangedEvent.State before = LoanChangedEvent.State.of(loan);
         loan.setStatus("REJECTED");
         loanRepository.save(loan);
+        eventPublisher.publishEvent(new LoanChangedEvent(before, LoanChangedEvent.State.of(loan)));
 
         // Notify user
         Optional<Account> account = accountRepository.findById(loan.getAccountNumber());
@@ -139,9 +181,17 @@ public class LoanService {
         return loan;
     }
 
-    // Get all pending loans
-    public List<Loan> getPendingLoans() {
-        return loanRepository.findByStatus("PENDING"); // Ensure this method exists in repository
+    // One page of pending loans, oldest application first
+    public Map<String, Object> getPendingLoans(int page, int size) {
+        Page<Loan> result = loanRepository.findByStatusOrderByCreatedAtAscIdAsc("PENDING",
+                PageRequest.of(Math.max(0, page), Math.max(1, Math.min(size, MAX_PAGE_SIZE))));
+        Map<String, Object> response = new HashMap<>();
+        response.put("loans", result.getContent());
+        response.put("page", result.getNumber());
+        response.put("size", result.getSize());
+        response.put("totalElements", result.getTotalElements());
+        response.put("totalPages", result.getTotalPages());
+        return response;
     }
 
     // Get all loans (Admin view)
@@ -150,9 +200,10 @@ public class LoanService {
     }
 
     // Pay loan EMI
+    @Transactional
     public boolean payLoanEmi(String accountNumber, Long loanId) {
-        Optional<Loan> loan = loanRepository.findById(loanId);
-        Optional<Account> account = accountRepository.findById(accountNumber);
+        Optional<Loan> loan = loanRepository.findForUpdate(loanId);
+        Optional<Account> account = accountRepository.findForUpdate(accountNumber);
 
         if (!loan.isPresent() || !account.isPresent()) {
             return false;
@@ -166,32 +217,132 @@ public class LoanService {
             return false;
         }
 
-        // Check if account has sufficient balance
-        if (acc.getBalance() < loanObj.getMonthlyEmi()) {
-            throw new RuntimeException("Insufficient balance for EMI payment");
+        // Check if account has sufficient balance; if not, retry when money reaches the account
+        if (cardAuthorizationService.availableBalance(acc) < loanObj.getMonthlyEmi()) {
+            pendingEmiService.enqueue(loanObj, loanObj.getMonthsPaid() + 1);
+            throw new RuntimeException("Insufficient balance for EMI payment. It will be retried when funds arrive.");
         }
 
-        // Deduct EMI from account
+        debitEmi(loanObj, acc);
+        return true;
+    }
+
+    // Deduct one EMI from the account, advance the loan (closing it after the last EMI) and post it
+    private void debitEmi(Loan loanObj, Account acc) {
+        LoanChangedEvent.State before = LoanChangedEvent.State.of(loanObj);
         acc.setBalance(acc.getBalance() - loanObj.getMonthlyEmi());
         accountRepository.save(acc);
 
-        // Update loan
-        loanObj.setMonthsPaid(loanObj.getMonthsPaid() + 1);
+        // Update loan; the next due date comes from the schedule (loans without one just move a month on)
+        int installmentNo = loanObj.getMonthsPaid() + 1;
+        loanObj.setMonthsPaid(installmentNo);
         loanObj.setAmountPaid(loanObj.getAmountPaid() + loanObj.getMonthlyEmi());
+        LocalDate nextDue = loanScheduleService.markPaid(loanObj.getId(), installmentNo);
+        if (nextDue != null) {
+            loanObj.setNextDueDate(nextDue);
+        } else if (loanObj.getNextDueDate() != null) {
+            loanObj.setNextDueDate(loanObj.getNextDueDate().plusMonths(1));
+        }
 
         // Check if loan is fully paid
         if (loanObj.getMonthsPaid() >= loanObj.getDurationMonths()) {
             loanObj.setStatus("CLOSED");
+            loanObj.setNextDueDate(null);
         }
 
         loanRepository.save(loanObj);
+        eventPublisher.publishEvent(new LoanChangedEvent(before, LoanChangedEvent.State.of(loanObj)));
 
         // Create transaction record
-        Transaction transaction = new Transaction(accountNumber, "LOAN_EMI", loanObj.getMonthlyEmi(), acc.getBalance(),
-                "Loan EMI Payment");
-        transactionRepository.save(transaction);
+        Transaction transaction = new Transaction(acc.getAccountNumber(), "LOAN_EMI", loanObj.getMonthlyEmi(),
+                acc.getBalance(), "Loan EMI Payment");
+        transactionService.post(transaction);
+
+        // A queued (bounced) installment is settled now, with its late fee
+        PendingEmi pending = pendingEmiService.resolve(loanObj, installmentNo);
+        if (pending != null) {
+            settlePenalty(pending, acc, loanObj.getLoanId());
+        }
+    }
 
-        return true;
+    // Collects a paid installment's late fee and closes its entry PAID; if the balance does not
+    // cover the fee the entry stays open as FEE_DUE and the fee is collected on a later credit
+    private String settlePenalty(PendingEmi pending, Account acc, String loanRef) {
+        if (pending.getPenalty() > 0 && !pending.isPenaltyPaid()) {
+            if (cardAuthorizationService.availableBalance(acc) < pending.getPenalty()) {
+                pending.setStatus("FEE_DUE");
+                return pendingEmiService.save(pending).getStatus();
+            }
+            acc.setBalance(acc.getBalance() - pending.getPenalty());
+            accountRepository.save(acc);
+            transactionService.post(new Transaction(acc.getAccountNumber(), "LOAN_PENALTY", pending.getPenalty(),
+                    acc.getBalance(), "Late EMI fee for " + loanRef));
+            pending.setPenaltyPaid(true);
+        }
+        return pendingEmiService.close(pending, "PAID").getStatus();
+    }
+
+    // Retry one queued EMI (or its late fee); returns the entry's status afterwards
+    @Transactional
+    public String retryPendingEmi(Long pendingId) {
+        Long loanId = pendingEmiService.findLoanId(pendingId);
+        if (loanId == null) {
+            return null;
+        }
+        // The entry is read under the loan's lock, so a run or manual payment of the same
+        // installment either finished before this (and resolved it) or waits for it
+        Loan loan = loanRepository.findForUpdate(loanId).orElse(null);
+        PendingEmi pending = pendingEmiService.findById(pendingId);
+        if ("FEE_DUE".equals(pending.getStatus())) {
+            Account acc = accountRepository.findForUpdate(pending.getAccountNumber()).orElse(null);
+            return acc == null ? pending.getStatus()
+                    : settlePenalty(pending, acc, loan != null ? loan.getLoanId() : String.valueOf(loanId));
+        }
+        if (!"PENDING".equals(pending.getStatus())) {
+            return pending.getStatus();
+        }
+        if (loan == null || !"ACTIVE".equals(loan.getStatus()) || loan.getMonthsPaid() >= pending.getInstallmentNo()) {
+            // Closed, or this installment was paid without going through the queue
+            return pendingEmiService.close(pending, "CANCELLED").getStatus();
+        }
+        if (loan.getMonthsPaid() + 1 < pending.getInstallmentNo()) {
+            return pending.getStatus(); // an earlier installment has to be paid first
+        }
+        Account acc = accountRepository.findForUpdate(loan.getAccountNumber()).orElse(null);
+        if (acc == null || cardAuthorizationService.availableBalance(acc) < loan.getMonthlyEmi()) {
+            return pendingEmiService.recordFailedAttempt(pending).getStatus();
+        }
+        debitEmi(loan, acc);
+        return pending.getStatus();
+    }
+
+    // Collect the EMI of one loan for an EMI run, recording the outcome in the same transaction.
+    // Returns null when this run already has an outcome for the loan (resumed run).
+    @Transactional
+    public EmiRunOutcome collectDueEmi(Long runId, Long loanId, LocalDate runDate) {
+        if (emiRunOutcomeRepository.existsByRunIdAndLoanId(runId, loanId)) {
+            return null;
+        }
+        Loan loan = loanRepository.findForUpdate(loanId).orElse(null);
+        if (loan == null || !"ACTIVE".equals(loan.getStatus()) || loan.getNextDueDate() == null
+                || loan.getNextDueDate().isAfter(runDate)) {
+            return emiRunOutcomeRepository.save(new EmiRunOutcome(runId, loanId,
+                    loan == null ? null : loan.getAccountNumber(), "SKIPPED", 0, "Not due"));
+        }
+        Optional<Account> account = accountRepository.findForUpdate(loan.getAccountNumber());
+        if (account.isEmpty()) {
+            return emiRunOutcomeRepository.save(new EmiRunOutcome(runId, loanId, loan.getAccountNumber(),
+                    "SKIPPED", 0, "Account not found"));
+        }
+        Account acc = account.get();
+        if (cardAuthorizationService.availableBalance(acc) < loan.getMonthlyEmi()) {
+            pendingEmiService.enqueue(loan, loan.getMonthsPaid() + 1);
+            return emiRunOutcomeRepository.save(new EmiRunOutcome(runId, loanId, loan.getAccountNumber(),
+                    "INSUFFICIENT_FUNDS", loan.getMonthlyEmi(), "Insufficient balance for EMI payment"));
+        }
+        debitEmi(loan, acc);
+        return emiRunOutcomeRepository.save(new EmiRunOutcome(runId, loanId, loan.getAccountNumber(), "PAID",
+                loan.getMonthlyEmi(), null));
     }
 
     // Get all loans for an account
@@ -199,22 +350,18 @@ public class LoanService {
         return loanRepository.findByAccountNumber(accountNumber);
     }
 
+    // Amortization schedule of a loan with what is left to repay
+    public Map<String, Object> getLoanSchedule(Long id) {
+        Loan loan = loanRepository.findById(id).orElseThrow(() -> new RuntimeException("Loan not found"));
+        Map<String, Object> result = new HashMap<>();
+        result.put("loan", loan);
+        result.put("installments", loanScheduleService.getSchedule(id));
+        result.put("outstandingPrincipal", loanScheduleService.getOutstandingPrincipal(id));
+        return result;
+    }
+
     // Get active loans for an account
     public List<Loan> getActiveLoans(String accountNumber) {
         return loanRepository.findByAccountNumberAndStatus(accountNumber, "ACTIVE");
     }
-
-    // Auto-debit EMI on 1st of every month (to be scheduled with @Scheduled)
-    public void autoDebitEmi() {
-        List<Loan> allLoans = loanRepository.findAll();
-        for (Loan loan : allLoans) {
-            if (loan.getStatus().equals("ACTIVE") && loan.getMonthsPaid() < loan.getDurationMonths()) {
-                try {
-                    payLoanEmi(loan.getAccountNumber(), loan.getId());
-                } catch (Exception e) {
-                    System.out.println("❌ EMI auto-debit failed for account: " + loan.getAccountNumber());
-                }
-            }
-        }
-    }
 }
@@ -0,0 +1,148 @@
+package org.example.bankingsystem.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * What-if grids for the loan calculator: EMI and total interest for every combination of
+ * a principal range and a tenure range, replacing one /loan/interest-rate call per cell.
+ * Rows (principals) are computed in parallel into primitive arrays, and whole grids are
+ * kept in a small LRU cache keyed by their parameters, since customers mostly ask for the
+ * same few ranges. The cache is bounded both in grids and in total cells (24 bytes each),
+ * so a run of maximum-size grids cannot pin tens of megabytes.
+ */
+@Service
+public class LoanSimulatorService {
+
+    public static final int MAX_CELLS = 10_000;
+    public static final int MAX_MONTHS = 360;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Value("${bank.loan.simulator.cache-size:64}")
+    private int cacheSize;
+
+    @Value("${bank.loan.simulator.cache-cells:200000}")
+    private long cacheCells;
+
+    // Access-ordered, so iteration starts at the least recently used grid; guarded by itself
+    private final Map<String, Grid> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedCells;
+
+    /**
+     * Grid over principals minAmount, minAmount + amountStep, ... up to maxAmount and tenures
+     * minMonths, minMonths + monthsStep, ... up to maxMonths. `emi` and `totalInterest` are what
+     * the bank would charge (flat rate, as on an approved loan); `reducingBalanceEmi` is the
+     * reducing-balance equivalent for comparison.
+     */
+    public Map<String, Object> simulate(double minAmount, double maxAmount, double amountStep, int minMonths,
+            int maxMonths, int monthsStep) {
+        if (!Double.isFinite(minAmount) || !Double.isFinite(maxAmount) || !Double.isFinite(amountStep)
+                || minAmount <= 0 || maxAmount < minAmount || amountStep <= 0) {
+            throw new IllegalArgumentException("Invalid amount range");
+        }
+        if (minMonths < 1 || maxMonths < minMonths || maxMonths > MAX_MONTHS || monthsStep < 1) {
+            throw new IllegalArgumentException("Tenure must be between 1 and " + MAX_MONTHS + " months");
+        }
+        // Checked as a double first: a tiny step makes the ratio overflow a long (or be infinite)
+        double steps = Math.floor((maxAmount - minAmount) / amountStep);
+        long cols = (maxMonths - minMonths) / monthsStep + 1;
+        if (!Double.isFinite(steps) || steps >= MAX_CELLS || ((long) steps + 1) * cols > MAX_CELLS) {
+            throw new IllegalArgumentException("Grid too large: at most " + MAX_CELLS + " cells");
+        }
+        long rows = (long) steps + 1;
+
+        String key = minAmount + ":" + maxAmount + ":" + amountStep + ":" + minMonths + ":" + maxMonths + ":"
+                + monthsStep;
+        Grid grid;
+        synchronized (cache) {
+            grid = cache.get(key);
+        }
+        boolean cached = grid != null;
+        if (grid == null) {
+            grid = compute(minAmount, amountStep, (int) rows, minMonths, monthsStep, (int) cols);
+            cachePut(key, grid);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("principals", grid.principals);
+        result.put("tenures", grid.tenures);
+        result.put("rates", grid.rates);
+        result.put("emi", grid.emi);
+        result.put("totalInterest", grid.totalInterest);
+        result.put("reducingBalanceEmi", grid.reducingBalanceEmi);
+        result.put("cached", cached);
+        return result;
+    }
+
+    private void cachePut(String key, Grid grid) {
+        synchronized (cache) {
+            Grid previous = cache.put(key, grid);
+            cachedCells += grid.cells() - (previous != null ? previous.cells() : 0);
+            Iterator<Grid> eldest = cache.values().iterator();
+            while (eldest.hasNext() && (cache.size() > cacheSize || cachedCells > cacheCells)) {
+                cachedCells -= eldest.next().cells();
+                eldest.remove();
+            }
+        }
+    }
+
+    private Grid compute(double minAmount, double amountStep, int rows, int minMonths, int monthsStep, int cols) {
+        Grid grid = new Grid(rows, cols);
+        for (int c = 0; c < cols; c++) {
+            grid.tenures[c] = minMonths + c * monthsStep;
+        }
+        IntStream.range(0, rows).parallel().forEach(r -> {
+            double principal = minAmount + r * amountStep;
+            double rate = loanService.calculateInterestRate(principal);
+            grid.principals[r] = principal;
+            grid.rates[r] = rate;
+            double[] emiRow = grid.emi[r];
+            double[] interestRow = grid.totalInterest[r];
+            double[] reducingRow = grid.reducingBalanceEmi[r];
+            for (int c = 0; c < cols; c++) {
+                int months = grid.tenures[c];
+                double emi = loanService.calculateFlatEmi(principal, rate, months);
+                emiRow[c] = round2(emi);
+                interestRow[c] = round2(emi * months - principal);
+                reducingRow[c] = round2(loanService.calculateEmi(principal, rate, months));
+            }
+        });
+        return grid;
+    }
+
+    private static double round2(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    // One computed grid; rows are principals, columns tenures
+    private static final class Grid {
+        private final double[] principals;
+        private final int[] tenures;
+        private final double[] rates;
+        private final double[][] emi;
+        private final double[][] totalInterest;
+        private final double[][] reducingBalanceEmi;
+
+        private Grid(int rows, int cols) {
+            principals = new double[rows];
+            tenures = new int[cols];
+            rates = new double[rows];
+            emi = new double[rows][cols];
+            totalInterest = new double[rows][cols];
+            reducingBalanceEmi = new double[rows][cols];
+        }
+
+        private long cells() {
+            return (long) principals.length * tenures.length;
+        }
+    }
+}
@@ -13,11 +13,23 @@ public class LoginHistoryService {
     @Autowired
     private LoginHistoryRepository loginHistoryRepository;
 
+    @Autowired
+    private ActiveUserService activeUserService;
+
     public LoginHistory record(String accountNumber, String ipAddress, String userAgent, boolean success) {
         LoginHistory h = new LoginHistory(accountNumber, ipAddress, userAgent, success);
         return loginHistoryRepository.save(h);
     }
 
+    // An actual sign-in attempt; successful ones count towards daily active users
+    public LoginHistory recordLogin(String accountNumber, String ipAddress, String userAgent, boolean success) {
+        LoginHistory h = record(accountNumber, ipAddress, userAgent, success);
+        if (success) {
+            activeUserService.recordLogin(accountNumber);
+        }
+        return h;
+    }
+
     public List<LoginHistory> getForAccount(String accountNumber) {
         return loginHistoryRepository.findByAccountNumberOrderByLoginTimeDesc(accountNumber);
     }
@@ -0,0 +1,146 @@
+package org.example.bankingsystem.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rotates the monthly partitions of login_history and otp_request
+ * (see db/migration/V2__partition_login_history_and_otp_request.sql).
+ * Upcoming months are split off the pmax partition ahead of time and months
+ * past the retention window are dropped (optionally copied to an archive table first).
+ */
+@Service
+public class PartitionMaintenanceService {
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final String MAX_PARTITION = "pmax";
+    // MySQL TO_DAYS('1970-01-01')
+    private static final long TO_DAYS_EPOCH_OFFSET = 719528L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${bank.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${bank.partitions.login-history.retention-months:12}")
+    private int loginHistoryRetentionMonths;
+
+    @Value("${bank.partitions.otp-request.retention-months:3}")
+    private int otpRequestRetentionMonths;
+
+    @Value("${bank.partitions.archive:false}")
+    private boolean archive;
+
+    // Runs nightly; cheap when there is nothing to do (one information_schema read per table)
+    @Scheduled(cron = "${bank.partitions.cron:0 30 2 * * *}")
+    public void rotatePartitions() {
+        for (String table : new String[] { "login_history", "otp_request" }) {
+            try {
+                Map<String, Object> result = rotate(table);
+                System.out.println("Partition maintenance for " + table + ": " + result);
+            } catch (Exception e) {
+                System.out.println("❌ Partition maintenance failed for " + table + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public Map<String, Object> rotate(String table) {
+        int retentionMonths = "login_history".equals(table) ? loginHistoryRetentionMonths : otpRequestRetentionMonths;
+        Map<String, Object> result = new HashMap<>();
+        result.put("table", table);
+
+        List<Map<String, Object>> partitions = loadPartitions(table);
+        if (partitions.isEmpty()) {
+            // Migration not applied yet - nothing to rotate
+            result.put("partitioned", false);
+            return result;
+        }
+        result.put("partitioned", true);
+
+        // 1. Create partitions for the current month and the next N months
+        long highestBound = 0;
+        boolean hasMax = false;
+        for (Map<String, Object> p : partitions) {
+            String description = String.valueOf(p.get("PARTITION_DESCRIPTION"));
+            if ("MAXVALUE".equalsIgnoreCase(description)) {
+                hasMax = true;
+            } else {
+                highestBound = Math.max(highestBound, Long.parseLong(description));
+            }
+        }
+
+        List<String> created = new ArrayList<>();
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            long bound = toDays(month.plusMonths(1).atDay(1));
+            if (bound <= highestBound || !hasMax) {
+                continue;
+            }
+            String name = month.atDay(1).format(PARTITION_NAME);
+            // pmax is empty as long as we stay ahead, so the reorganize only rewrites metadata
+            jdbcTemplate.execute("ALTER TABLE `" + table + "` REORGANIZE PARTITION " + MAX_PARTITION + " INTO ("
+                    + "PARTITION " + name + " VALUES LESS THAN (" + bound + "), "
+                    + "PARTITION " + MAX_PARTITION + " VALUES LESS THAN MAXVALUE)");
+            highestBound = bound;
+            created.add(name);
+        }
+        result.put("created", created);
+
+        // 2. Drop (or archive then drop) partitions entirely older than the retention window
+        long cutoff = toDays(current.minusMonths(retentionMonths).atDay(1));
+        List<String> dropped = new ArrayList<>();
+        for (Map<String, Object> p : partitions) {
+            String name = String.valueOf(p.get("PARTITION_NAME"));
+            String description = String.valueOf(p.get("PARTITION_DESCRIPTION"));
+            if ("MAXVALUE".equalsIgnoreCase(description) || Long.parseLong(description) > cutoff) {
+                continue;
+            }
+            if (archive) {
+                archivePartition(table, name);
+            }
+            jdbcTemplate.execute("ALTER TABLE `" + table + "` DROP PARTITION " + name);
+            dropped.add(name);
+        }
+        result.put("dropped", dropped);
+        result.put("archived", archive && !dropped.isEmpty());
+        return result;
+    }
+
+    private List<Map<String, Object>> loadPartitions(String table) {
+        return jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL "
+                        + "ORDER BY PARTITION_ORDINAL_POSITION",
+                table);
+    }
+
+    private void archivePartition(String table, String partition) {
+        String archiveTable = table + "_archive";
+        Integer exists = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?",
+                Integer.class, archiveTable);
+        if (exists == null || exists == 0) {
+            jdbcTemplate.execute("CREATE TABLE `" + archiveTable + "` LIKE `" + table + "`");
+            jdbcTemplate.execute("ALTER TABLE `" + archiveTable + "` REMOVE PARTITIONING");
+        }
+        jdbcTemplate.execute("INSERT INTO `" + archiveTable + "` SELECT * FROM `" + table + "` PARTITION ("
+                + partition + ")");
+    }
+
+    private static long toDays(LocalDate date) {
+        return date.toEpochDay() + TO_DAYS_EPOCH_OFFSET;
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.bankingsystem.service;
+
+import org.example.bankingsystem.event.LoanChangedEvent;
+import org.example.bankingsystem.repository.DebitCardRepository;
+import org.example.bankingsystem.repository.DeleteRequestRepository;
+import org.example.bankingsystem.repository.HelpRequestRepository;
+import org.example.bankingsystem.repository.LoanRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pending counts of the admin queues (card, loan and delete requests, open help requests)
+ * shown in the admin header. Every admin page polls them, so the four indexed COUNTs are
+ * computed once and shared until the TTL passes or one of the queues changes.
+ */
+@Service
+public class PendingCountService {
+
+    @Autowired
+    private DebitCardRepository debitCardRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private DeleteRequestRepository deleteRequestRepository;
+
+    @Autowired
+    private HelpRequestRepository helpRequestRepository;
+
+    @Value("${bank.admin.pending-counts.ttl-ms:5000}")
+    private long ttlMs;
+
+    private volatile Snapshot snapshot;
+    // Bumped on every queue change, so counts computed concurrently with a change are not kept
+    private final AtomicLong version = new AtomicLong();
+    private final Object refreshLock = new Object();
+
+    public Map<String, Object> getPendingCounts() {
+        Snapshot current = snapshot;
+        if (!isFresh(current)) {
+            synchronized (refreshLock) {
+                current = snapshot;
+                if (!isFresh(current)) {
+                    long seen = version.get();
+                    Map<String, Long> counts = new HashMap<>();
+                    counts.put("cardRequests", debitCardRepository.countByStatus("PENDING"));
+                    counts.put("loanRequests", loanRepository.countByStatus("PENDING"));
+                    counts.put("deleteRequests", deleteRequestRepository.countByStatus("PENDING"));
+                    counts.put("helpRequests", helpRequestRepository.countByStatus("PENDING"));
+                    current = new Snapshot(counts, seen);
+                    snapshot = current;
+                }
+            }
+        }
+        Map<String, Object> result = new HashMap<>(current.counts);
+        result.put("total", current.counts.values().stream().mapToLong(Long::longValue).sum());
+        result.put("asOf", Instant.ofEpochMilli(current.computedAt).toString());
+        return result;
+    }
+
+    private boolean isFresh(Snapshot current) {
+        return current != null && current.version == version.get()
+                && System.currentTimeMillis() - current.computedAt <= ttlMs;
+    }
+
+    // Called when a request enters or leaves one of the queues. Inside a transaction the bump
+    // waits for the commit, so counts read before the change is visible are not kept under
+    // the new version.
+    public void invalidate() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            version.incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                version.incrementAndGet();
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLoanChanged(LoanChangedEvent event) {
+        if ("PENDING".equals(event.getAfter().getStatus())
+                || (event.getBefore() != null && "PENDING".equals(event.getBefore().getStatus()))) {
+            // Already after the commit; a synchronization registered now would never run
+            version.incrementAndGet();
+        }
+    }
+
+    private static final class Snapshot {
+        private final Map<String, Long> counts;
+        private final long version;
+        private final long computedAt = System.currentTimeMillis();
+
+        private Snapshot(Map<String, Long> counts, long version) {
+            this.counts = counts;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.bankingsystem.service;
+
+import org.example.bankingsystem.model.Loan;
+import org.example.bankingsystem.model.PendingEmi;
+import org.example.bankingsystem.repository.PendingEmiRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Queue of EMIs that bounced for lack of balance. Each missed installment is queued once
+ * with a late fee, and retried (by EmiEngineService) when a credit posts to its account,
+ * until it is paid or runs out of attempts (counted once per day, however many credits
+ * arrive). An installment paid while its fee cannot be covered stays queued as FEE_DUE
+ * until a later credit pays the fee. The accounts with open entries are kept in memory, so
+ * the credit listener costs nothing for every other account.
+ */
+@Service
+public class PendingEmiService {
+
+    private static final int MAX_PAGE_SIZE = 200;
+    // Entries still to be retried: the EMI itself, or only its late fee
+    private static final List<String> OPEN = List.of("PENDING", "FEE_DUE");
+
+    @Autowired
+    private PendingEmiRepository pendingEmiRepository;
+
+    @Value("${bank.emi.retry.max-attempts:5}")
+    private int maxAttempts;
+
+    // Late fee as a fraction of the missed EMI
+    @Value("${bank.emi.penalty-rate:0.02}")
+    private double penaltyRate;
+
+    private final Set<String> accountsWithPending = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            accountsWithPending.addAll(pendingEmiRepository.findAccountNumbersWithPending());
+            ready = true;
+        } catch (Exception e) {
+            System.out.println("❌ Pending EMI accounts load failed: " + e.getMessage());
+        }
+    }
+
+    // Until the startup load finishes every account may have a queued EMI
+    public boolean mayHavePending(String accountNumber) {
+        return accountNumber != null && (!ready || accountsWithPending.contains(accountNumber));
+    }
+
+    /**
+     * Queues installment `installmentNo` of a loan, once. Runs in its own transaction so the
+     * entry survives the caller rolling back (payLoanEmi throws on insufficient balance).
+     * Callers hold the loan row lock (LoanRepository.findForUpdate), so no other caller can
+     * queue the same installment between the lookup and the insert.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public PendingEmi enqueue(Loan loan, int installmentNo) {
+        accountsWithPending.add(loan.getAccountNumber());
+        PendingEmi existing = pendingEmiRepository.findByLoanIdAndInstallmentNo(loan.getId(), installmentNo)
+                .orElse(null);
+        if (existing != null) {
+            return existing;
+        }
+        double penalty = Math.round(loan.getMonthlyEmi() * penaltyRate * 100) / 100.0;
+        return pendingEmiRepository.saveAndFlush(new PendingEmi(loan.getId(), installmentNo,
+                loan.getAccountNumber(), loan.getMonthlyEmi(), penalty));
+    }
+
+    public PendingEmi findById(Long id) {
+        return pendingEmiRepository.findById(id).orElse(null);
+    }
+
+    // The loan of an entry, without loading the entry (so it can be read after the loan is locked)
+    public Long findLoanId(Long id) {
+        return pendingEmiRepository.findLoanIdById(id).orElse(null);
+    }
+
+    public List<PendingEmi> getPending(String accountNumber) {
+        return pendingEmiRepository.findByAccountNumberAndStatusInOrderByLoanIdAscInstallmentNoAsc(accountNumber,
+                OPEN);
+    }
+
+    // Called in the debit's transaction once an installment is paid by any path; returns its
+    // still-PENDING queue entry, if there is one, for the caller to settle with its late fee
+    public PendingEmi resolve(Loan loan, int installmentNo) {
+        if (!mayHavePending(loan.getAccountNumber())) {
+            return null;
+        }
+        PendingEmi pending = pendingEmiRepository.findByLoanIdAndInstallmentNo(loan.getId(), installmentNo)
+                .orElse(null);
+        if (pending == null || !"PENDING".equals(pending.getStatus())) {
+            return null;
+        }
+        return pending;
+    }
+
+    public PendingEmi close(PendingEmi pending, String status) {
+        pending.setStatus(status);
+        pending.setResolvedAt(LocalDateTime.now());
+        return pendingEmiRepository.save(pending);
+    }
+
+    public PendingEmi save(PendingEmi pending) {
+        return pendingEmiRepository.save(pending);
+    }
+
+    // A retry that still found too little balance; the entry gives up after failing on
+    // maxAttempts different days, so a burst of small credits costs one attempt
+    public PendingEmi recordFailedAttempt(PendingEmi pending) {
+        LocalDateTime now = LocalDateTime.now();
+        boolean sameDay = pending.getLastAttemptAt() != null
+                && pending.getLastAttemptAt().toLocalDate().equals(now.toLocalDate());
+        pending.setLastAttemptAt(now);
+        if (sameDay) {
+            return pendingEmiRepository.save(pending);
+        }
+        pending.setAttempts(pending.getAttempts() + 1);
+        if (pending.getAttempts() >= maxAttempts) {
+            return close(pending, "EXHAUSTED");
+        }
+        return pendingEmiRepository.save(pending);
+    }
+
+    // Stop watching an account once nothing is queued for it
+    public void forgetIfIdle(String accountNumber) {
+        if (!pendingEmiRepository.existsByAccountNumberAndStatusIn(accountNumber, OPEN)) {
+            accountsWithPending.remove(accountNumber);
+        }
+    }
+
+    public Map<String, Object> getQueue(String status, int page, int size) {
+        PageRequest request = PageRequest.of(Math.max(0, page), Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        Page<PendingEmi> result = status == null || status.isBlank()
+                ? pendingEmiRepository.findAllByOrderByIdDesc(request)
+                : pendingEmiRepository.findByStatusOrderByIdDesc(status.trim().toUpperCase(), request);
+        Map<String, Object> response = new HashMap<>();
+        response.put("pendingEmis", result.getContent());
+        response.put("page", result.getNumber());
+        response.put("size", request.getPageSize());
+        response.put("totalElements", result.getTotalElements());
+        response.put("totalPages", result.getTotalPages());
+        response.put("watchedAccounts", accountsWithPending.size());
+        return response;
+    }
+}
@@ -0,0 +1,356 @@
+package org.example.bankingsystem.service;
+
+import org.example.bankingsystem.event.TransactionPostedEvent;
+import org.example.bankingsystem.model.Transaction;
+import org.example.bankingsystem.repository.StreamingQueryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Optional in-memory column store of all transactions for admin analytics
+ * (bank.analytics.columnar.enabled). Rows live in fixed-size segments of primitive
+ * arrays (date, account index, type code, amount in paise): about 21 bytes per row.
+ * The store is loaded from the database at startup, then tailed from committed postings.
+ *
+ * There is a single writer (guarded by writeLock). Readers take no lock: each segment
+ * publishes its row count through a volatile field after the row's columns are written.
+ */
+@Service
+public class TransactionColumnStore {
+
+    public enum GroupBy {
+        DAY, MONTH, TYPE, ACCOUNT
+    }
+
+    static final int SEGMENT_SIZE = 1 << 16;
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    @Value("${bank.analytics.columnar.enabled:false}")
+    private boolean enabled;
+
+    @Autowired
+    private StreamingQueryRepository streamingQueryRepo;
+
+    private final Object writeLock = new Object();
+    private volatile Segment[] segments = new Segment[0];
+    private volatile boolean ready;
+    private volatile long lastLoadedId;
+    // Postings that commit while the initial load is running, applied once it finishes
+    private final Queue<Transaction> pendingTail = new ArrayDeque<>();
+
+    // Dictionaries: account number <-> int index, type <-> byte code
+    private final Map<String, Integer> accountIndex = new HashMap<>();
+    private volatile String[] accounts = new String[1024];
+    private volatile int accountCount;
+    private final Map<String, Byte> typeCodes = new HashMap<>();
+    private volatile String[] types = new String[Byte.MAX_VALUE + 1];
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        new Thread(() -> {
+            try {
+                long started = System.currentTimeMillis();
+                load();
+                System.out.println("Columnar transaction store loaded " + size() + " rows in "
+                        + (System.currentTimeMillis() - started) + " ms");
+            } catch (Exception e) {
+                System.out.println("❌ Columnar transaction store load failed: " + e.getMessage());
+            }
+        }, "column-store-load").start();
+    }
+
+    // Load everything committed so far, then switch to tailing postings
+    private void load() {
+        // Ids seen by the scan (auto-increment ids are dense, so a bit each)
+        BitSet loadedIds = new BitSet();
+        streamingQueryRepo.streamTransactionColumns(lastLoadedId, rs -> {
+            long id = rs.getLong("id");
+            synchronized (writeLock) {
+                append(rs.getString("account_number"), rs.getString("type"), rs.getDouble("amount"),
+                        rs.getTimestamp("date").toLocalDateTime());
+                lastLoadedId = id;
+            }
+            if (id <= Integer.MAX_VALUE) {
+                loadedIds.set((int) id);
+            }
+        });
+        synchronized (writeLock) {
+            // Postings that committed during the load: those the scan already saw are skipped,
+            // the rest (including late commits with ids below the last one scanned) are added
+            Transaction t;
+            while ((t = pendingTail.poll()) != null) {
+                Long id = t.getId();
+                boolean scanned = id != null && (id <= Integer.MAX_VALUE ? loadedIds.get(id.intValue())
+                        : id <= lastLoadedId);
+                if (id != null && !scanned) {
+                    append(t.getAccountNumber(), t.getType(), t.getAmount(), t.getDate());
+                    lastLoadedId = Math.max(lastLoadedId, id);
+                }
+            }
+            ready = true;
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Transaction t = event.getTransaction();
+        synchronized (writeLock) {
+            if (ready) {
+                append(t.getAccountNumber(), t.getType(), t.getAmount(), t.getDate());
+                if (t.getId() != null && t.getId() > lastLoadedId) {
+                    lastLoadedId = t.getId();
+                }
+            } else {
+                pendingTail.add(t);
+            }
+        }
+    }
+
+    // Adds one row outside the load/tail path, e.g. to fill the store with a synthetic dataset
+    void appendRow(String accountNumber, String type, double amount, LocalDateTime date) {
+        synchronized (writeLock) {
+            append(accountNumber, type, amount, date);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    String typeName(int code) {
+        return types[code];
+    }
+
+    public long size() {
+        long n = 0;
+        for (Segment s : segments) {
+            n += s.count;
+        }
+        return n;
+    }
+
+    // Caller must hold writeLock
+    private void append(String accountNumber, String type, double amount, LocalDateTime date) {
+        Segment[] current = segments;
+        Segment tail = current.length == 0 ? null : current[current.length - 1];
+        if (tail == null || tail.count == SEGMENT_SIZE) {
+            tail = new Segment();
+            Segment[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = tail;
+            segments = grown;
+        }
+        long seconds = date.toEpochSecond(ZoneOffset.UTC); // wall-clock time, so day = seconds / 86400
+        tail.add(seconds, accountIndexOf(accountNumber), typeCodeOf(type), Math.round(amount * 100));
+    }
+
+    private int accountIndexOf(String accountNumber) {
+        Integer idx = accountIndex.get(accountNumber);
+        if (idx == null) {
+            idx = accountIndex.size();
+            String[] names = accounts;
+            if (idx == names.length) {
+                names = Arrays.copyOf(names, names.length * 2);
+            }
+            names[idx] = accountNumber;
+            accounts = names;
+            accountIndex.put(accountNumber, idx);
+            accountCount = idx + 1;
+        }
+        return idx;
+    }
+
+    private byte typeCodeOf(String type) {
+        String key = type == null ? "UNKNOWN" : type;
+        Byte code = typeCodes.get(key);
+        if (code == null) {
+            // Codes 0..126 go to the first types seen; the last code is left for OTHER, which
+            // counts every type after that
+            if (typeCodes.size() >= Byte.MAX_VALUE) {
+                key = "OTHER";
+                code = typeCodes.get(key);
+            }
+            if (code == null) {
+                code = (byte) typeCodes.size();
+                String[] names = types;
+                names[code] = key;
+                types = names;
+                typeCodes.put(key, code);
+            }
+        }
+        return code;
+    }
+
+    /**
+     * Sum and count of amounts in [from, to), optionally limited to one type, grouped by
+     * day, month, type or account. Rows are {key, amount, count}, ordered by key.
+     */
+    public List<Map<String, Object>> aggregate(LocalDateTime from, LocalDateTime to, String type, GroupBy groupBy) {
+        Partial partial = scan(from, to, type, groupBy);
+        return partial == null ? new ArrayList<>() : toRows(partial, from, groupBy);
+    }
+
+    // Raw scan used by aggregate() and by parallel reports that merge several ranges
+    Partial scan(LocalDateTime from, LocalDateTime to, String type, GroupBy groupBy) {
+        long fromSec = from.toEpochSecond(ZoneOffset.UTC);
+        long toSec = to.toEpochSecond(ZoneOffset.UTC);
+        int typeFilter = -1;
+        if (type != null) {
+            Byte code;
+            synchronized (writeLock) {
+                code = typeCodes.get(type);
+            }
+            if (code == null) {
+                return null;
+            }
+            typeFilter = code;
+        }
+
+        long fromDay = Math.floorDiv(fromSec, SECONDS_PER_DAY);
+        LocalDate fromMonth = from.toLocalDate().withDayOfMonth(1);
+        int buckets;
+        switch (groupBy) {
+            case DAY -> buckets = (int) (Math.floorDiv(toSec - 1, SECONDS_PER_DAY) - fromDay + 1);
+            case MONTH -> buckets = (int) (ChronoUnit.MONTHS.between(fromMonth,
+                    to.minusNanos(1).toLocalDate().withDayOfMonth(1)) + 1);
+            case TYPE -> buckets = Byte.MAX_VALUE + 1;
+            default -> buckets = accountCount;
+        }
+        Partial p = new Partial(Math.max(buckets, 0));
+        if (buckets <= 0) {
+            return p;
+        }
+
+        for (Segment s : segments) {
+            int n = s.count;
+            if (n == 0 || s.maxSec < fromSec || s.minSec >= toSec) {
+                continue; // segment entirely outside the range
+            }
+            long[] dates = s.dates;
+            int[] accs = s.accounts;
+            byte[] codes = s.types;
+            long[] amounts = s.amounts;
+            for (int i = 0; i < n; i++) {
+                long sec = dates[i];
+                if (sec < fromSec || sec >= toSec || (typeFilter >= 0 && codes[i] != typeFilter)) {
+                    continue;
+                }
+                int bucket;
+                switch (groupBy) {
+                    case DAY -> bucket = (int) (Math.floorDiv(sec, SECONDS_PER_DAY) - fromDay);
+                    case MONTH -> {
+                        LocalDate d = LocalDate.ofEpochDay(Math.floorDiv(sec, SECONDS_PER_DAY));
+                        bucket = (d.getYear() - fromMonth.getYear()) * 12 + d.getMonthValue()
+                                - fromMonth.getMonthValue();
+                    }
+                    case TYPE -> bucket = codes[i];
+                    default -> bucket = accs[i];
+                }
+                if (bucket >= p.sums.length) {
+                    continue; // account appended after the scan sized its buckets
+                }
+                p.sums[bucket] += amounts[i];
+                p.counts[bucket]++;
+            }
+        }
+        return p;
+    }
+
+    List<Map<String, Object>> toRows(Partial p, LocalDateTime from, GroupBy groupBy) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        String[] accountNames = accounts;
+        String[] typeNames = types;
+        for (int b = 0; b < p.sums.length; b++) {
+            if (p.counts[b] == 0) {
+                continue;
+            }
+            Object key;
+            switch (groupBy) {
+                case DAY -> key = from.toLocalDate().plusDays(b).toString();
+                case MONTH -> key = YearMonth.from(from).plusMonths(b).toString();
+                case TYPE -> key = typeNames[b];
+                default -> key = accountNames[b];
+            }
+            Map<String, Object> row = new HashMap<>();
+            row.put("key", key);
+            row.put("amount", p.sums[b] / 100.0);
+            row.put("count", p.counts[b]);
+            rows.add(row);
+        }
+        if (groupBy == GroupBy.TYPE || groupBy == GroupBy.ACCOUNT) {
+            rows.sort((a, b) -> String.valueOf(a.get("key")).compareTo(String.valueOf(b.get("key"))));
+        }
+        return rows;
+    }
+
+    // Per-bucket sums (paise) and counts; partials of the same shape can be merged
+    static final class Partial {
+        final long[] sums;
+        final long[] counts;
+
+        Partial(int buckets) {
+            this.sums = new long[buckets];
+            this.counts = new long[buckets];
+        }
+
+        void merge(Partial other, int offset) {
+            for (int i = 0; i < other.sums.length && i + offset < sums.length; i++) {
+                sums[i + offset] += other.sums[i];
+                counts[i + offset] += other.counts[i];
+            }
+        }
+    }
+
+    private static final class Segment {
+        private final long[] dates = new long[SEGMENT_SIZE];
+        private final int[] accounts = new int[SEGMENT_SIZE];
+        private final byte[] types = new byte[SEGMENT_SIZE];
+        private final long[] amounts = new long[SEGMENT_SIZE];
+        private volatile long minSec = Long.MAX_VALUE;
+        private volatile long maxSec = Long.MIN_VALUE;
+        private volatile int count;
+
+        private void add(long seconds, int account, byte type, long amount) {
+            int i = count;
+            dates[i] = seconds;
+            accounts[i] = account;
+            types[i] = type;
+            amounts[i] = amount;
+            if (seconds < minSec) {
+                minSec = seconds;
+            }
+            if (seconds > maxSec) {
+                maxSec = seconds;
+            }
+            count = i + 1; // publishes the row to readers
+        }
+    }
+}
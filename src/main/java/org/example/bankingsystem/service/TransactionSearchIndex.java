@@ -0,0 +1,376 @@
+package org.example.bankingsystem.service;
+
+import org.example.bankingsystem.event.TransactionPostedEvent;
+import org.example.bankingsystem.model.Transaction;
+import org.example.bankingsystem.repository.StreamingQueryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+/**
+ * In-memory trigram index for the admin transaction search box, replacing three
+ * LIKE '%q%' scans per keystroke. Transaction ids are indexed per transaction; account
+ * numbers and holder names are indexed once per account, and each account keeps the
+ * list of its transactions. Transactions are numbered by insertion order (ordinals) so
+ * every posting list is an ascending int array that only ever grows at the end.
+ *
+ * Built in the background at startup and then kept current from committed postings and
+ * account creation. A trigram hit does not guarantee a substring match, so candidates are
+ * verified here against the lower-cased transaction ids (kept back to back in one byte
+ * array) and the account entries; search() returns exact matches only.
+ *
+ * Costs roughly 100 bytes of heap per transaction, so it is off unless
+ * bank.search.index.enabled is set.
+ */
+@Service
+public class TransactionSearchIndex {
+
+    public static final int MIN_QUERY_LENGTH = 3;
+
+    @Value("${bank.search.index.enabled:false}")
+    private boolean enabled;
+
+    @Autowired
+    private StreamingQueryRepository streamingQueryRepo;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+    // Postings that commit while the index is being built, applied once it finishes
+    private final Queue<Transaction> pendingTail = new ArrayDeque<>();
+
+    // Transaction ordinal -> database id; ascending for the ordinals written by the build
+    private long[] ordinalIds = new long[1024];
+    private int ordinalCount;
+    // Lower-cased transaction ids back to back (ISO-8859-1); ordinal -> end offset
+    private byte[] txnIdChars = new byte[16 * 1024];
+    private int[] txnIdEnds = new int[1024];
+    // Trigram of a transaction id -> transaction ordinals
+    private final Map<Long, IntList> txnIdGrams = new HashMap<>();
+
+    private final Map<String, Integer> accountOrdinals = new HashMap<>();
+    private final List<AccountEntry> accounts = new ArrayList<>();
+    // Trigram of an account number or holder name -> account ordinals
+    private final Map<Long, IntList> accountGrams = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        new Thread(() -> {
+            try {
+                long started = System.currentTimeMillis();
+                build();
+                System.out.println("Transaction search index built: " + ordinalCount + " transactions, "
+                        + accounts.size() + " accounts in " + (System.currentTimeMillis() - started) + " ms");
+            } catch (Exception e) {
+                System.out.println("❌ Transaction search index build failed: " + e.getMessage());
+            }
+        }, "search-index-build").start();
+    }
+
+    private void build() {
+        streamingQueryRepo.streamAccountNames(rs -> putAccount(rs.getString("account_number"), rs.getString("name")));
+        streamingQueryRepo.streamTransactionSearchKeys(rs -> {
+            lock.writeLock().lock();
+            try {
+                add(rs.getLong("id"), rs.getString("transaction_id"), rs.getString("account_number"));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+        lock.writeLock().lock();
+        try {
+            // Postings that committed during the build: those the scan already saw are skipped,
+            // the rest (including late commits with ids below the last one scanned) are added
+            int loaded = ordinalCount;
+            Transaction t;
+            while ((t = pendingTail.poll()) != null) {
+                if (t.getId() != null && Arrays.binarySearch(ordinalIds, 0, loaded, t.getId()) < 0) {
+                    add(t.getId(), t.getTransactionId(), t.getAccountNumber());
+                }
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Transaction t = event.getTransaction();
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                add(t.getId(), t.getTransactionId(), t.getAccountNumber());
+            } else {
+                pendingTail.add(t);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Registers (or renames) an account so its holder name becomes searchable
+    public void putAccount(String accountNumber, String name) {
+        if (!enabled || accountNumber == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            AccountEntry entry = accountEntry(accountNumber);
+            entry.name = name;
+            if (name != null) {
+                int ordinal = accountOrdinals.get(accountNumber);
+                forEachTrigram(name, gram -> accountGrams.computeIfAbsent(gram, k -> new IntList()).insert(ordinal));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // A deleted account is no longer found by its holder name (its number and transactions still are)
+    public void removeAccountName(String accountNumber) {
+        putAccount(accountNumber, null);
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Ids of transactions whose transaction id, account number or holder name contains the
+     * query (case-insensitive), newest first.
+     */
+    public long[] search(String query) {
+        String q = query.trim().toLowerCase(Locale.ROOT);
+        if (q.length() < MIN_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Query must have at least " + MIN_QUERY_LENGTH + " characters");
+        }
+        List<Long> grams = new ArrayList<>();
+        forEachTrigram(q, grams::add);
+
+        lock.readLock().lock();
+        try {
+            List<int[]> lists = new ArrayList<>();
+            int[] txnMatches = intersect(txnIdGrams, grams);
+            byte[] needle = q.getBytes(StandardCharsets.ISO_8859_1);
+            int matched = 0;
+            for (int ordinal : txnMatches) {
+                if (txnIdContains(ordinal, needle)) {
+                    txnMatches[matched++] = ordinal;
+                }
+            }
+            if (matched > 0) {
+                lists.add(Arrays.copyOf(txnMatches, matched));
+            }
+            for (int accountOrdinal : intersect(accountGrams, grams)) {
+                AccountEntry entry = accounts.get(accountOrdinal);
+                if (entry.matches(q) && entry.transactions.size > 0) {
+                    lists.add(entry.transactions.toArray());
+                }
+            }
+            int[] ordinals = union(lists);
+            long[] ids = new long[ordinals.length];
+            for (int i = 0; i < ordinals.length; i++) {
+                ids[i] = ordinalIds[ordinals[i]];
+            }
+            Arrays.sort(ids);
+            // Newest first
+            for (int i = 0, j = ids.length - 1; i < j; i++, j--) {
+                long tmp = ids[i];
+                ids[i] = ids[j];
+                ids[j] = tmp;
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void add(Long id, String transactionId, String accountNumber) {
+        if (id == null) {
+            return;
+        }
+        if (ordinalCount == ordinalIds.length) {
+            ordinalIds = Arrays.copyOf(ordinalIds, ordinalIds.length * 2);
+            txnIdEnds = Arrays.copyOf(txnIdEnds, txnIdEnds.length * 2);
+        }
+        int ordinal = ordinalCount++;
+        ordinalIds[ordinal] = id;
+        byte[] chars = transactionId != null
+                ? transactionId.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.ISO_8859_1)
+                : new byte[0];
+        int start = ordinal == 0 ? 0 : txnIdEnds[ordinal - 1];
+        if (start + chars.length > txnIdChars.length) {
+            txnIdChars = Arrays.copyOf(txnIdChars, Math.max(txnIdChars.length * 2, start + chars.length));
+        }
+        System.arraycopy(chars, 0, txnIdChars, start, chars.length);
+        txnIdEnds[ordinal] = start + chars.length;
+        if (transactionId != null) {
+            forEachTrigram(transactionId, gram -> txnIdGrams.computeIfAbsent(gram, k -> new IntList()).append(ordinal));
+        }
+        if (accountNumber != null) {
+            accountEntry(accountNumber).transactions.append(ordinal);
+        }
+    }
+
+    // Caller holds the lock
+    private boolean txnIdContains(int ordinal, byte[] needle) {
+        int start = ordinal == 0 ? 0 : txnIdEnds[ordinal - 1];
+        int last = txnIdEnds[ordinal] - needle.length;
+        outer: for (int i = start; i <= last; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (txnIdChars[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    // Caller holds the write lock
+    private AccountEntry accountEntry(String accountNumber) {
+        Integer ordinal = accountOrdinals.get(accountNumber);
+        if (ordinal != null) {
+            return accounts.get(ordinal);
+        }
+        int newOrdinal = accounts.size();
+        AccountEntry entry = new AccountEntry(accountNumber);
+        accounts.add(entry);
+        accountOrdinals.put(accountNumber, newOrdinal);
+        forEachTrigram(accountNumber, gram -> accountGrams.computeIfAbsent(gram, k -> new IntList()).append(newOrdinal));
+        return entry;
+    }
+
+    // Three lower-cased chars packed into one long
+    private static void forEachTrigram(String value, LongConsumer consumer) {
+        String s = value.toLowerCase(Locale.ROOT);
+        for (int i = 0; i + MIN_QUERY_LENGTH <= s.length(); i++) {
+            consumer.accept(((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2));
+        }
+    }
+
+    // Ordinals present in the posting lists of every gram, smallest list first
+    private static int[] intersect(Map<Long, IntList> index, List<Long> grams) {
+        List<IntList> lists = new ArrayList<>();
+        for (Long gram : grams) {
+            IntList list = index.get(gram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+        int[] result = lists.get(0).toArray();
+        for (int l = 1; l < lists.size() && result.length > 0; l++) {
+            IntList other = lists.get(l);
+            int n = 0;
+            for (int value : result) {
+                if (Arrays.binarySearch(other.values, 0, other.size, value) >= 0) {
+                    result[n++] = value;
+                }
+            }
+            result = Arrays.copyOf(result, n);
+        }
+        return result;
+    }
+
+    private static int[] union(List<int[]> lists) {
+        if (lists.size() == 1) {
+            return lists.get(0);
+        }
+        int total = 0;
+        for (int[] list : lists) {
+            total += list.length;
+        }
+        int[] all = new int[total];
+        int n = 0;
+        for (int[] list : lists) {
+            System.arraycopy(list, 0, all, n, list.length);
+            n += list.length;
+        }
+        Arrays.sort(all);
+        int unique = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (i == 0 || all[i] != all[i - 1]) {
+                all[unique++] = all[i];
+            }
+        }
+        return Arrays.copyOf(all, unique);
+    }
+
+    private static final class AccountEntry {
+        private final String accountNumber;
+        private String name;
+        private final IntList transactions = new IntList();
+
+        private AccountEntry(String accountNumber) {
+            this.accountNumber = accountNumber;
+        }
+
+        private boolean matches(String lowerQuery) {
+            return accountNumber.toLowerCase(Locale.ROOT).contains(lowerQuery)
+                    || (name != null && name.toLowerCase(Locale.ROOT).contains(lowerQuery));
+        }
+    }
+
+    // Growable ascending int array without duplicates
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        // value is >= every value already present
+        private void append(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            grow();
+            values[size++] = value;
+        }
+
+        // Sorted insert, for account ordinals gaining name trigrams after creation
+        private void insert(int value) {
+            int pos = Arrays.binarySearch(values, 0, size, value);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            grow();
+            System.arraycopy(values, pos, values, pos + 1, size - pos);
+            values[pos] = value;
+            size++;
+        }
+
+        private void grow() {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
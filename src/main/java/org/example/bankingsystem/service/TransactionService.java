@@ -0,0 +1,26 @@
+package org.example.bankingsystem.service;
+
+import org.example.bankingsystem.event.TransactionPostedEvent;
+import org.example.bankingsystem.model.Transaction;
+import org.example.bankingsystem.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+@Service
+public class TransactionService {
+
+    @Autowired
+    private TransactionRepository transactionRepo;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Save a posting and notify listeners (aggregates, counters, indexes).
+    // Callers should be @Transactional so the listeners' writes commit with the posting.
+    public Transaction post(Transaction txn) {
+        Transaction saved = transactionRepo.save(txn);
+        eventPublisher.publishEvent(new TransactionPostedEvent(saved));
+        return saved;
+    }
+}
@@ -0,0 +1,262 @@
+package org.example.bankingsystem.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.bankingsystem.repository.TransactionRepository;
+import org.example.bankingsystem.repository.projection.DailyTypeTotal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Long-range admin volume reports (quarterly volumes, per-type breakdowns).
+ * The date range is split into chunks of bank.reports.chunk-days that are aggregated
+ * in parallel on a dedicated fork-join pool; each chunk is either a scan of the
+ * columnar store (when it is loaded) or one bounded GROUP BY range query.
+ * Each chunk yields per-day arrays for its own days; halves are concatenated on the way up.
+ */
+@Service
+public class VolumeReportService {
+
+    public enum Granularity {
+        DAY, WEEK, MONTH, QUARTER
+    }
+
+    static final int MAX_REPORT_DAYS = 3660;
+
+    @Autowired
+    private TransactionRepository transactionRepo;
+
+    @Autowired
+    private TransactionColumnStore columnStore;
+
+    @Value("${bank.reports.chunk-days:7}")
+    private int chunkDays;
+
+    // 0 = one worker per available processor
+    @Value("${bank.reports.parallelism:0}")
+    private int parallelism;
+
+    private volatile ForkJoinPool pool;
+
+    public Map<String, Object> volumeReport(LocalDate from, LocalDate to, Granularity granularity, String type) {
+        return volumeReport(from, to, granularity, type, pool(), columnStore.isReady());
+    }
+
+    // Report over [from, to] inclusive, on the given pool and source
+    Map<String, Object> volumeReport(LocalDate from, LocalDate to, Granularity granularity, String type,
+            ForkJoinPool workers, boolean columnar) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > MAX_REPORT_DAYS) {
+            throw new IllegalArgumentException("Report range is limited to " + MAX_REPORT_DAYS + " days");
+        }
+
+        long started = System.currentTimeMillis();
+        ChunkTask root = new ChunkTask(from, 0, days, type, columnar);
+        Chunk total = workers.invoke(root);
+
+        // Roll the per-day totals up into report periods
+        Map<String, long[]> periods = new LinkedHashMap<>();
+        long totalPaise = 0;
+        long totalCount = 0;
+        for (int d = 0; d < days; d++) {
+            if (total.dayCounts[d] == 0) {
+                continue;
+            }
+            long[] period = periods.computeIfAbsent(periodOf(from.plusDays(d), granularity), k -> new long[2]);
+            period[0] += total.daySums[d];
+            period[1] += total.dayCounts[d];
+            totalPaise += total.daySums[d];
+            totalCount += total.dayCounts[d];
+        }
+
+        Map<String, Object> report = new HashMap<>();
+        report.put("from", from);
+        report.put("to", to);
+        report.put("granularity", granularity);
+        report.put("type", type);
+        report.put("source", columnar ? "columnar" : "database");
+        report.put("parallelism", workers.getParallelism());
+        report.put("chunks", (days + chunkDays() - 1) / chunkDays());
+        report.put("periods", toRows(periods, "period"));
+        report.put("byType", toRows(new TreeMap<>(total.byType), "type"));
+        report.put("totalAmount", totalPaise / 100.0);
+        report.put("totalCount", totalCount);
+        report.put("elapsedMs", System.currentTimeMillis() - started);
+        return report;
+    }
+
+    private static String periodOf(LocalDate day, Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> day.toString();
+            case WEEK -> day.with(DayOfWeek.MONDAY).toString();
+            case MONTH -> YearMonth.from(day).toString();
+            case QUARTER -> day.getYear() + "-Q" + ((day.getMonthValue() - 1) / 3 + 1);
+        };
+    }
+
+    private static List<Map<String, Object>> toRows(Map<String, long[]> totals, String keyName) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Map.Entry<String, long[]> e : totals.entrySet()) {
+            Map<String, Object> row = new HashMap<>();
+            row.put(keyName, e.getKey());
+            row.put("amount", e.getValue()[0] / 100.0);
+            row.put("count", e.getValue()[1]);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private int chunkDays() {
+        return Math.max(1, chunkDays);
+    }
+
+    private ForkJoinPool pool() {
+        ForkJoinPool p = pool;
+        if (p == null) {
+            synchronized (this) {
+                p = pool;
+                if (p == null) {
+                    int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+                    p = new ForkJoinPool(workers);
+                    pool = p;
+                }
+            }
+        }
+        return p;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ForkJoinPool p = pool;
+        if (p != null) {
+            p.shutdownNow();
+        }
+    }
+
+    // Totals of a run of report days: amounts in paise per day, plus per-type totals
+    private static final class Chunk {
+        private final long[] daySums;
+        private final long[] dayCounts;
+        private final Map<String, long[]> byType = new HashMap<>();
+
+        private Chunk(int days) {
+            this.daySums = new long[days];
+            this.dayCounts = new long[days];
+        }
+
+        // The days of `first` followed by the days of `second`
+        private static Chunk concat(Chunk first, Chunk second) {
+            int n = first.daySums.length;
+            Chunk merged = new Chunk(n + second.daySums.length);
+            System.arraycopy(first.daySums, 0, merged.daySums, 0, n);
+            System.arraycopy(first.dayCounts, 0, merged.dayCounts, 0, n);
+            System.arraycopy(second.daySums, 0, merged.daySums, n, second.daySums.length);
+            System.arraycopy(second.dayCounts, 0, merged.dayCounts, n, second.dayCounts.length);
+            merged.mergeTypes(first);
+            merged.mergeTypes(second);
+            return merged;
+        }
+
+        private void addType(String type, long paise, long count) {
+            long[] t = byType.computeIfAbsent(type, k -> new long[2]);
+            t[0] += paise;
+            t[1] += count;
+        }
+
+        private void mergeTypes(Chunk other) {
+            other.byType.forEach((type, t) -> addType(type, t[0], t[1]));
+        }
+    }
+
+    // Days [startDay, endDay) of the report, split in halves until at most chunkDays long
+    private final class ChunkTask extends RecursiveTask<Chunk> {
+        private final LocalDate reportFrom;
+        private final int startDay;
+        private final int endDay;
+        private final String type;
+        private final boolean columnar;
+
+        private ChunkTask(LocalDate reportFrom, int startDay, int endDay, String type,
+                boolean columnar) {
+            this.reportFrom = reportFrom;
+            this.startDay = startDay;
+            this.endDay = endDay;
+            this.type = type;
+            this.columnar = columnar;
+        }
+
+        @Override
+        protected Chunk compute() {
+            if (endDay - startDay <= chunkDays()) {
+                return columnar ? scanColumns() : queryDatabase();
+            }
+            // Split on a chunk boundary so leaves line up with the reported chunk count
+            int chunks = (endDay - startDay + chunkDays() - 1) / chunkDays();
+            int mid = startDay + (chunks / 2) * chunkDays();
+            ChunkTask left = new ChunkTask(reportFrom, startDay, mid, type, columnar);
+            ChunkTask right = new ChunkTask(reportFrom, mid, endDay, type, columnar);
+            left.fork();
+            Chunk second = right.compute();
+            return Chunk.concat(left.join(), second);
+        }
+
+        private Chunk scanColumns() {
+            Chunk chunk = new Chunk(endDay - startDay);
+            LocalDateTime from = reportFrom.plusDays(startDay).atStartOfDay();
+            LocalDateTime to = reportFrom.plusDays(endDay).atStartOfDay();
+            TransactionColumnStore.Partial days = columnStore.scan(from, to, type,
+                    TransactionColumnStore.GroupBy.DAY);
+            if (days == null) {
+                return chunk; // type never seen
+            }
+            for (int d = 0; d < days.sums.length; d++) {
+                chunk.daySums[d] = days.sums[d];
+                chunk.dayCounts[d] = days.counts[d];
+            }
+            TransactionColumnStore.Partial types = columnStore.scan(from, to, type,
+                    TransactionColumnStore.GroupBy.TYPE);
+            for (int code = 0; code < types.sums.length; code++) {
+                if (types.counts[code] > 0) {
+                    chunk.addType(columnStore.typeName(code), types.sums[code], types.counts[code]);
+                }
+            }
+            return chunk;
+        }
+
+        private Chunk queryDatabase() {
+            Chunk chunk = new Chunk(endDay - startDay);
+            List<DailyTypeTotal> rows = transactionRepo.sumByDayAndTypeBetween(
+                    reportFrom.plusDays(startDay).atStartOfDay(), reportFrom.plusDays(endDay).atStartOfDay());
+            for (DailyTypeTotal row : rows) {
+                String rowType = row.getTxnType() == null ? "UNKNOWN" : row.getTxnType();
+                if (type != null && !type.equals(rowType)) {
+                    continue;
+                }
+                int day = (int) ChronoUnit.DAYS.between(reportFrom, row.getTxnDay()) - startDay;
+                long paise = Math.round((row.getTotal() == null ? 0.0 : row.getTotal()) * 100);
+                long count = row.getTxnCount() == null ? 0L : row.getTxnCount();
+                chunk.daySums[day] += paise;
+                chunk.dayCounts[day] += count;
+                chunk.addType(rowType, paise, count);
+            }
+            return chunk;
+        }
+    }
+}
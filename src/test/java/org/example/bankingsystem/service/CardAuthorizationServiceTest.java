@@ -0,0 +1,168 @@
+package org.example.bankingsystem.service;
+
+import org.example.bankingsystem.model.Account;
+import org.example.bankingsystem.model.CardHold;
+import org.example.bankingsystem.model.DebitCard;
+import org.example.bankingsystem.repository.AccountRepository;
+import org.example.bankingsystem.repository.CardHoldRepository;
+import org.example.bankingsystem.repository.DebitCardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * CardAuthorizationService against mocked repositories (no database or Spring context):
+ * the daily limit compare-and-set, the balance reservation and settlement bookkeeping.
+ */
+class CardAuthorizationServiceTest {
+
+    private static final String CARD = "4000123412341234";
+    private static final String ACCOUNT = "123456789012";
+
+    private final DebitCardRepository debitCardRepository = mock(DebitCardRepository.class);
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+    private final TransactionService transactionService = mock(TransactionService.class);
+    private CardAuthorizationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CardAuthorizationService();
+        ReflectionTestUtils.setField(service, "debitCardRepository", debitCardRepository);
+        ReflectionTestUtils.setField(service, "accountRepository", accountRepository);
+        ReflectionTestUtils.setField(service, "cardHoldRepository", mock(CardHoldRepository.class));
+        ReflectionTestUtils.setField(service, "transactionService", transactionService);
+        ReflectionTestUtils.setField(service, "jdbcTemplate", mock(JdbcTemplate.class));
+        ReflectionTestUtils.setField(service, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "ready", true);
+        when(transactionService.post(any())).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    private void givenCard(double dailyLimit) {
+        DebitCard card = new DebitCard(ACCOUNT, "Test Holder");
+        card.setCardNumber(CARD);
+        card.setStatus("ACTIVE");
+        card.setDailyLimit(dailyLimit);
+        card.setCurrentDaySpent(0);
+        card.setLastResetDate(LocalDate.now());
+        card.setExpiryDate(LocalDate.now().plusYears(1));
+        when(debitCardRepository.findByCardNumber(CARD)).thenReturn(Optional.of(card));
+    }
+
+    private static Account account(double balance) {
+        Account acc = new Account();
+        ReflectionTestUtils.setField(acc, "accountNumber", ACCOUNT);
+        acc.setBalance(balance);
+        return acc;
+    }
+
+    @Test
+    void concurrentAuthorizationsNeverExceedTheDailyLimit() throws Exception {
+        givenCard(1000);
+        Account acc = account(1_000_000);
+        when(accountRepository.findById(anyString())).thenReturn(Optional.of(acc));
+
+        int threads = 16;
+        int perThread = 20;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger approved = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    if (Boolean.TRUE.equals(service.authorize(CARD, 30, "M", false).get("approved"))) {
+                        approved.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get();
+        }
+        pool.shutdown();
+
+        // 33 x 30 = 990 fits in the limit of 1000, a 34th does not
+        assertEquals(33, approved.get());
+        assertEquals(10.0, service.remainingLimit(CARD), 1e-9);
+        assertEquals(990.0, service.heldAmount(ACCOUNT), 1e-9);
+    }
+
+    @Test
+    void reservationIsRetriedWhenACaptureCommitsAfterTheBalanceWasRead() {
+        givenCard(10_000);
+        Account live = account(1000);
+        when(accountRepository.findForUpdate(anyString())).thenReturn(Optional.of(live));
+        when(accountRepository.findById(anyString())).thenReturn(Optional.of(live));
+        String first = (String) service.authorize(CARD, 600, "M", false).get("holdId");
+
+        // The next authorization reads a balance of 1000; the 600 capture commits right after
+        AtomicInteger reads = new AtomicInteger();
+        when(accountRepository.findById(anyString())).thenAnswer(inv -> {
+            if (reads.getAndIncrement() == 0) {
+                Account stale = account(live.getBalance());
+                service.capture(first, null);
+                return Optional.of(stale);
+            }
+            return Optional.of(live);
+        });
+        Map<String, Object> second = service.authorize(CARD, 500, "M", false);
+
+        // Against the stale 1000 it would fit; against the real 400 it does not
+        assertEquals(false, second.get("approved"));
+        assertEquals("INSUFFICIENT_FUNDS", second.get("reason"));
+        assertEquals(2, reads.get());
+        assertEquals(400.0, live.getBalance(), 1e-9);
+        assertEquals(0.0, service.heldAmount(ACCOUNT), 1e-9);
+    }
+
+    @Test
+    void partialCaptureAndReleaseGiveTheRestBackToTheLimit() {
+        givenCard(1000);
+        Account acc = account(5000);
+        when(accountRepository.findById(anyString())).thenReturn(Optional.of(acc));
+        when(accountRepository.findForUpdate(anyString())).thenReturn(Optional.of(acc));
+
+        String captured = (String) service.authorize(CARD, 400, "M", false).get("holdId");
+        assertEquals(600.0, service.remainingLimit(CARD), 1e-9);
+
+        CardHold hold = service.capture(captured, 250.0);
+        assertEquals("CAPTURED", hold.getStatus());
+        assertEquals(750.0, service.remainingLimit(CARD), 1e-9);
+        assertEquals(4750.0, acc.getBalance(), 1e-9);
+
+        String released = (String) service.authorize(CARD, 300, "M", false).get("holdId");
+        assertEquals(450.0, service.remainingLimit(CARD), 1e-9);
+        assertEquals(300.0, service.heldAmount(ACCOUNT), 1e-9);
+        assertEquals(4450.0, service.availableBalance(acc), 1e-9);
+
+        service.release(released);
+        assertEquals(750.0, service.remainingLimit(CARD), 1e-9);
+        assertEquals(0.0, service.heldAmount(ACCOUNT), 1e-9);
+        assertEquals(4750.0, acc.getBalance(), 1e-9);
+        verify(transactionService, times(1)).post(any());
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.bankingsystem.service;
+
+import org.example.bankingsystem.event.TransactionPostedEvent;
+import org.example.bankingsystem.model.DailyRollup;
+import org.example.bankingsystem.model.Transaction;
+import org.example.bankingsystem.repository.DailyRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * DailyRollupService's write-behind of posting totals against a mocked repository and
+ * transaction manager (no database or Spring context).
+ */
+class DailyRollupServiceTest {
+
+    private final DailyRollupRepository rollupRepo = mock(DailyRollupRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final TransactionStatus status = mock(TransactionStatus.class);
+    private DailyRollupService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DailyRollupService();
+        ReflectionTestUtils.setField(service, "rollupRepo", rollupRepo);
+        ReflectionTestUtils.setField(service, "transactionManager", transactionManager);
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+    }
+
+    // Postings are dated now
+    private void post(double amount) {
+        Transaction t = new Transaction("123456789012", "DEPOSIT", amount, amount, "Test");
+        service.onTransactionPosted(new TransactionPostedEvent(t));
+    }
+
+    @Test
+    void flushUpsertsEachDayInATransactionAndDrainsIt() {
+        LocalDate today = LocalDate.now();
+        post(100);
+        post(50);
+
+        service.flush();
+
+        InOrder order = inOrder(transactionManager, rollupRepo);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(rollupRepo).add(today, 150.0, 2, 0, 0);
+        order.verify(transactionManager).commit(status);
+
+        // Written totals are no longer added on top of the stored row
+        when(rollupRepo.findByRollupDateBetweenOrderByRollupDate(today, today))
+                .thenReturn(List.of(stored(today, 150.0, 2)));
+        DailyRollup row = service.getLastDays(1).get(0);
+        assertEquals(150.0, row.getTransactionVolume(), 1e-9);
+        assertEquals(2, row.getTransactionCount());
+    }
+
+    @Test
+    void failedUpsertKeepsTheTotalsForTheNextFlush() {
+        LocalDate today = LocalDate.now();
+        post(70);
+        doThrow(new RuntimeException("deadlock")).when(rollupRepo).add(eq(today), anyDouble(), anyLong(),
+                anyLong(), anyLong());
+
+        service.flush();
+
+        verify(transactionManager).rollback(status);
+        verify(transactionManager, never()).commit(any());
+        DailyRollup row = service.getLastDays(1).get(0);
+        assertEquals(70.0, row.getTransactionVolume(), 1e-9);
+        assertEquals(1, row.getTransactionCount());
+    }
+
+    private static DailyRollup stored(LocalDate day, double volume, long count) {
+        DailyRollup r = new DailyRollup(day);
+        r.setTransactionVolume(volume);
+        r.setTransactionCount(count);
+        return r;
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.bankingsystem.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * LoanSimulatorService's grid-size guard (no database or Spring context; the EMI maths
+ * comes from a plain LoanService).
+ */
+class LoanSimulatorServiceTest {
+
+    private LoanSimulatorService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new LoanSimulatorService();
+        ReflectionTestUtils.setField(service, "loanService", new LoanService());
+        ReflectionTestUtils.setField(service, "cacheSize", 64);
+        ReflectionTestUtils.setField(service, "cacheCells", 200_000L);
+    }
+
+    @Test
+    void gridAtTheCellLimitIsComputed() {
+        // 100 principals x 100 tenures
+        Map<String, Object> result = service.simulate(1000, 100_000, 1000, 1, 100, 1);
+        assertEquals(100, ((double[]) result.get("principals")).length);
+        assertEquals(100, ((int[]) result.get("tenures")).length);
+    }
+
+    @Test
+    void oversizedGridsAreRejectedRatherThanOverflowing() {
+        assertThrows(IllegalArgumentException.class, () -> service.simulate(1000, 100_000, 990, 1, 100, 1));
+        // The step count is infinite, or past the range of a long
+        assertThrows(IllegalArgumentException.class, () -> service.simulate(1, 1e9, 1e-300, 1, 12, 1));
+        assertThrows(IllegalArgumentException.class, () -> service.simulate(1, 1e300, 1e-10, 1, 12, 1));
+        // Rows that fit in a long but whose product with the tenures would wrap
+        assertThrows(IllegalArgumentException.class, () -> service.simulate(1, 4e18, 1, 1, 360, 1));
+        assertThrows(IllegalArgumentException.class, () -> service.simulate(Double.NaN, 1000, 1, 1, 12, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.simulate(1000, Double.POSITIVE_INFINITY, 1, 1, 12, 1));
+    }
+}
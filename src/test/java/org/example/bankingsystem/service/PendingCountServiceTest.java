@@ -0,0 +1,68 @@
+package org.example.bankingsystem.service;
+
+import org.example.bankingsystem.repository.DebitCardRepository;
+import org.example.bankingsystem.repository.DeleteRequestRepository;
+import org.example.bankingsystem.repository.HelpRequestRepository;
+import org.example.bankingsystem.repository.LoanRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * PendingCountService's cached counts against mocked repositories, with transaction
+ * synchronization driven by hand (no database or Spring context).
+ */
+class PendingCountServiceTest {
+
+    private final DebitCardRepository debitCardRepository = mock(DebitCardRepository.class);
+    private PendingCountService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PendingCountService();
+        ReflectionTestUtils.setField(service, "debitCardRepository", debitCardRepository);
+        ReflectionTestUtils.setField(service, "loanRepository", mock(LoanRepository.class));
+        ReflectionTestUtils.setField(service, "deleteRequestRepository", mock(DeleteRequestRepository.class));
+        ReflectionTestUtils.setField(service, "helpRequestRepository", mock(HelpRequestRepository.class));
+        ReflectionTestUtils.setField(service, "ttlMs", 60_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void invalidateOutsideATransactionTakesEffectRightAway() {
+        when(debitCardRepository.countByStatus("PENDING")).thenReturn(1L, 2L);
+        assertEquals(1L, service.getPendingCounts().get("cardRequests"));
+
+        service.invalidate();
+
+        assertEquals(2L, service.getPendingCounts().get("cardRequests"));
+    }
+
+    @Test
+    void countsReadBeforeTheCommitAreReplacedOnceItCommits() {
+        when(debitCardRepository.countByStatus("PENDING")).thenReturn(1L, 2L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // A card request is saved, then the header is polled before the insert commits
+        service.invalidate();
+        assertEquals(1L, service.getPendingCounts().get("cardRequests"));
+
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertEquals(2L, service.getPendingCounts().get("cardRequests"));
+    }
+}
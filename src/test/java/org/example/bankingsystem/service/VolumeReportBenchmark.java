@@ -0,0 +1,80 @@
+package org.example.bankingsystem.service;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Manual benchmark for VolumeReportService over a synthetic dataset held in the
+ * columnar store (no database or Spring context involved). Not a unit test; run with
+ *
+ *   mvn test-compile exec:java \
+ *       -Dexec.mainClass=org.example.bankingsystem.service.VolumeReportBenchmark \
+ *       -Dexec.args="5000000 730"
+ *
+ * Arguments: row count (default 5,000,000) and days of history (default 730).
+ * Give the JVM about 25 bytes of heap per row.
+ */
+public class VolumeReportBenchmark {
+
+    private static final String[] TYPES = { "DEPOSIT", "WITHDRAW", "TRANSFER_IN", "TRANSFER_OUT", "BILL_PAYMENT",
+            "LOAN_CREDIT", "LOAN_EMI" };
+    private static final int ACCOUNTS = 50_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        int historyDays = args.length > 1 ? Integer.parseInt(args[1]) : 730;
+
+        TransactionColumnStore store = new TransactionColumnStore();
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "ready", true);
+
+        // Rows arrive in time order, as they would from the id-ordered load
+        LocalDate end = LocalDate.now();
+        LocalDateTime start = end.minusDays(historyDays - 1).atStartOfDay();
+        long spanSeconds = historyDays * 86_400L;
+        SplittableRandom random = new SplittableRandom(42);
+        long loadStarted = System.currentTimeMillis();
+        for (int i = 0; i < rows; i++) {
+            LocalDateTime date = start.plusSeconds(spanSeconds * i / rows);
+            String account = String.valueOf(100_000_000_000L + random.nextInt(ACCOUNTS));
+            String type = TYPES[random.nextInt(TYPES.length)];
+            double amount = (1 + random.nextInt(5_000_000)) / 100.0;
+            store.appendRow(account, type, amount, date);
+        }
+        System.out.printf("Loaded %,d rows over %d days in %d ms%n", store.size(), historyDays,
+                System.currentTimeMillis() - loadStarted);
+
+        VolumeReportService reports = new VolumeReportService();
+        ReflectionTestUtils.setField(reports, "columnStore", store);
+        ReflectionTestUtils.setField(reports, "chunkDays", 7);
+
+        LocalDate from = end.minusDays(historyDays - 1);
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int parallelism = 1; parallelism <= cores; parallelism = parallelism == cores ? cores + 1
+                : Math.min(parallelism * 2, cores)) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                // Warm-up round lets the JIT compile the scan loop
+                reports.volumeReport(from, end, VolumeReportService.Granularity.QUARTER, null, pool, true);
+                long best = Long.MAX_VALUE;
+                Map<String, Object> report = null;
+                for (int r = 0; r < ROUNDS; r++) {
+                    long started = System.nanoTime();
+                    report = reports.volumeReport(from, end, VolumeReportService.Granularity.QUARTER, null, pool,
+                            true);
+                    best = Math.min(best, System.nanoTime() - started);
+                }
+                System.out.printf("parallelism=%-3d best of %d: %7.1f ms  (%,d rows, %s chunks)%n", parallelism,
+                        ROUNDS, best / 1e6, report.get("totalCount"), report.get("chunks"));
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package org.example.bankingsystem.service;
+
+import org.example.bankingsystem.repository.TransactionRepository;
+import org.example.bankingsystem.repository.projection.DailyTypeTotal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * VolumeReportService's fork-join report, from the columnar store and from per-chunk
+ * GROUP BY queries, checked against a plain single-threaded aggregation of the same rows
+ * (no database or Spring context).
+ */
+class VolumeReportServiceTest {
+
+    private static final String[] TYPES = { "DEPOSIT", "WITHDRAW", "TRANSFER_IN", "TRANSFER_OUT", "BILL_PAYMENT" };
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+    private static final int HISTORY_DAYS = 200;
+
+    private final List<Row> rows = new ArrayList<>();
+    private final TransactionRepository transactionRepo = mock(TransactionRepository.class);
+    private VolumeReportService service;
+    private ForkJoinPool workers;
+
+    private record Row(String type, long paise, LocalDateTime date) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        TransactionColumnStore store = new TransactionColumnStore();
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "ready", true);
+
+        // Time-ordered rows, with a few empty days so chunks and periods have gaps
+        SplittableRandom random = new SplittableRandom(7);
+        LocalDateTime start = FIRST_DAY.atStartOfDay();
+        for (int i = 0; i < 20_000; i++) {
+            LocalDateTime date = start.plusSeconds(HISTORY_DAYS * 86_400L * i / 20_000);
+            if (date.getDayOfMonth() == 13) {
+                continue;
+            }
+            String type = TYPES[random.nextInt(TYPES.length)];
+            long paise = 1 + random.nextInt(1_000_000);
+            rows.add(new Row(type, paise, date));
+            store.appendRow(String.valueOf(100_000_000_000L + random.nextInt(500)), type, paise / 100.0, date);
+        }
+
+        // The database path gets the same rows through a plain GROUP BY day, type
+        when(transactionRepo.sumByDayAndTypeBetween(any(), any())).thenAnswer(inv -> {
+            LocalDateTime from = inv.getArgument(0);
+            LocalDateTime to = inv.getArgument(1);
+            Map<String, double[]> groups = new TreeMap<>();
+            for (Row row : rows) {
+                if (!row.date().isBefore(from) && row.date().isBefore(to)) {
+                    double[] g = groups.computeIfAbsent(row.date().toLocalDate() + "|" + row.type(),
+                            k -> new double[2]);
+                    g[0] += row.paise() / 100.0;
+                    g[1]++;
+                }
+            }
+            List<DailyTypeTotal> result = new ArrayList<>();
+            groups.forEach((key, g) -> {
+                String[] parts = key.split("\\|");
+                result.add(total(LocalDate.parse(parts[0]), parts[1], g[0], (long) g[1]));
+            });
+            return result;
+        });
+
+        service = new VolumeReportService();
+        ReflectionTestUtils.setField(service, "columnStore", store);
+        ReflectionTestUtils.setField(service, "transactionRepo", transactionRepo);
+        ReflectionTestUtils.setField(service, "chunkDays", 7);
+        workers = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        workers.shutdownNow();
+    }
+
+    private static DailyTypeTotal total(LocalDate day, String type, double total, long count) {
+        return new DailyTypeTotal() {
+            public LocalDate getTxnDay() {
+                return day;
+            }
+
+            public String getTxnType() {
+                return type;
+            }
+
+            public Double getTotal() {
+                return total;
+            }
+
+            public Long getTxnCount() {
+                return count;
+            }
+        };
+    }
+
+    @Test
+    void monthlyReportMatchesAPlainAggregation() {
+        LocalDate from = FIRST_DAY.plusDays(10);
+        LocalDate to = FIRST_DAY.plusDays(HISTORY_DAYS - 20);
+        for (boolean columnar : new boolean[] { true, false }) {
+            Map<String, Object> report = service.volumeReport(from, to, VolumeReportService.Granularity.MONTH, null,
+                    workers, columnar);
+            assertMatches(report, from, to, null);
+        }
+    }
+
+    @Test
+    void typeFilteredWeeklyReportMatchesAPlainAggregation() {
+        LocalDate from = FIRST_DAY.plusDays(3);
+        LocalDate to = FIRST_DAY.plusDays(HISTORY_DAYS - 1);
+        for (boolean columnar : new boolean[] { true, false }) {
+            Map<String, Object> report = service.volumeReport(from, to, VolumeReportService.Granularity.WEEK,
+                    "TRANSFER_IN", workers, columnar);
+            assertMatches(report, from, to, "TRANSFER_IN");
+            assertEquals(1, ((List<?>) report.get("byType")).size());
+        }
+    }
+
+    private void assertMatches(Map<String, Object> report, LocalDate from, LocalDate to, String type) {
+        Map<String, long[]> periods = new LinkedHashMap<>();
+        Map<String, long[]> byType = new TreeMap<>();
+        long paise = 0;
+        long count = 0;
+        for (Row row : rows) {
+            LocalDate day = row.date().toLocalDate();
+            if (day.isBefore(from) || day.isAfter(to) || (type != null && !type.equals(row.type()))) {
+                continue;
+            }
+            String period = report.get("granularity") == VolumeReportService.Granularity.MONTH
+                    ? YearMonth.from(day).toString()
+                    : day.with(DayOfWeek.MONDAY).toString();
+            add(periods, period, row.paise());
+            add(byType, row.type(), row.paise());
+            paise += row.paise();
+            count++;
+        }
+
+        String source = (String) report.get("source");
+        assertSameTotals(periods, toMap(report.get("periods"), "period"), source + " periods");
+        assertSameTotals(byType, toMap(report.get("byType"), "type"), source + " byType");
+        assertEquals(paise, Math.round((Double) report.get("totalAmount") * 100), source + " totalAmount");
+        assertEquals(count, report.get("totalCount"), source + " totalCount");
+    }
+
+    private static void add(Map<String, long[]> totals, String key, long paise) {
+        long[] t = totals.computeIfAbsent(key, k -> new long[2]);
+        t[0] += paise;
+        t[1]++;
+    }
+
+    // Report rows as key -> "paise/count" so maps compare by value
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> toMap(Object reportRows, String keyName) {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (Map<String, Object> row : (List<Map<String, Object>>) reportRows) {
+            result.put((String) row.get(keyName),
+                    Math.round((Double) row.get("amount") * 100) + "/" + row.get("count"));
+        }
+        return result;
+    }
+
+    private static void assertSameTotals(Map<String, long[]> expected, Map<String, String> actual, String message) {
+        Map<String, String> e = new LinkedHashMap<>();
+        expected.forEach((k, v) -> e.put(k, v[0] + "/" + v[1]));
+        assertEquals(e, actual, message);
+    }
+}